@@ -2,8 +2,10 @@ package com.ermn.config;
 
 import com.ermn.model.entity.*;
 import com.ermn.model.enums.*;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.*;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +14,7 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 
 @Component
+@ConditionalOnProperty(name = "ermn.data-seeder.enabled", havingValue = "true", matchIfMissing = true)
 public class DataSeeder implements CommandLineRunner {
 
     private final UserRepository userRepository;
@@ -89,8 +92,8 @@ public class DataSeeder implements CommandLineRunner {
         Hospital hospital = Hospital.builder()
                 .name(name)
                 .address(address)
-                .latitude(new BigDecimal(lat))
-                .longitude(new BigDecimal(lon))
+                .latitude(Coordinate.ofDecimal(new BigDecimal(lat)))
+                .longitude(Coordinate.ofDecimal(new BigDecimal(lon)))
                 .phone("080-1234567" + (int)(Math.random() * 9))
                 .admin(hospitalAdmin)
                 .build();
@@ -127,8 +130,8 @@ public class DataSeeder implements CommandLineRunner {
                 .vehicleNumber(vehicleNumber)
                 .isAvailable(true)
                 .isApproved(true)
-                .currentLatitude(new BigDecimal(lat))
-                .currentLongitude(new BigDecimal(lon))
+                .currentLatitude(Coordinate.ofDecimal(new BigDecimal(lat)))
+                .currentLongitude(Coordinate.ofDecimal(new BigDecimal(lon)))
                 .build();
         ambulanceRepository.save(ambulance);
     }
@@ -150,8 +153,8 @@ public class DataSeeder implements CommandLineRunner {
         BloodBank bloodBank = BloodBank.builder()
                 .name(name)
                 .address(address)
-                .latitude(new BigDecimal(lat))
-                .longitude(new BigDecimal(lon))
+                .latitude(Coordinate.ofDecimal(new BigDecimal(lat)))
+                .longitude(Coordinate.ofDecimal(new BigDecimal(lon)))
                 .phone("080-9876543" + (int)(Math.random() * 9))
                 .admin(bloodBankAdmin)
                 .build();
@@ -0,0 +1,117 @@
+package com.ermn.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Sends read-only transactions to the replica unless it is lagging or the current client has
+ * written something it may not have replicated yet; everything else goes to the primary. Needs
+ * to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so
+ * that the connection is only chosen once the transaction's read-only flag is known.
+ * <p>
+ * Write tokens committed during an HTTP request are also returned in the {@value #WRITE_TOKEN_COOKIE}
+ * cookie, so a client's next request reads its writes whichever instance it lands on.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String WRITE_TOKEN_COOKIE = "ermn_write_token";
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        String username = currentUsername();
+        ServletRequestAttributes request = currentRequest();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagMonitor.canReadFromReplica(username, clientWriteToken(request)) ? Route.REPLICA : Route.PRIMARY;
+        }
+        if ((username != null || request != null) && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    long token = lagMonitor.recordWrite(username);
+                    if (request != null) {
+                        handWriteTokenToClient(request, token);
+                    }
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+
+    private void handWriteTokenToClient(ServletRequestAttributes attributes, long token) {
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        // Remembered so that later reads in the same request see the token too
+        attributes.setAttribute(WRITE_TOKEN_COOKIE, token, RequestAttributes.SCOPE_REQUEST);
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(WRITE_TOKEN_COOKIE, Long.toString(token))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(lagMonitor.getMaxLag())
+                .build()
+                .toString());
+    }
+
+    private static long clientWriteToken(ServletRequestAttributes attributes) {
+        if (attributes == null) {
+            return -1;
+        }
+        if (attributes.getAttribute(WRITE_TOKEN_COOKIE, RequestAttributes.SCOPE_REQUEST) instanceof Long token) {
+            return token;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return -1;
+        }
+        for (Cookie cookie : cookies) {
+            if (WRITE_TOKEN_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes
+                : null;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && !(authentication instanceof AnonymousAuthenticationToken)
+                ? authentication.getName()
+                : null;
+    }
+}
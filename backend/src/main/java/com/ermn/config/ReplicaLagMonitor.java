@@ -0,0 +1,124 @@
+package com.ermn.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tracks how far the read replica is behind the primary and which users wrote more recently
+ * than that. Every instance upserts a heartbeat row on the primary and reads it back from the
+ * replica; the last heartbeat seen there marks the point up to which all earlier commits have
+ * been replicated. A write token is the time a client's last write transaction committed, and
+ * the client is read from the primary until the replica has caught up past it. Tokens are kept
+ * per user on the instance that committed the write, and handed to the client so that other
+ * instances can honour them too.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String instanceId;
+    private final Duration maxLag;
+    private final long maxLagMillis;
+    private final Cache<String, Long> writeTokens;
+    private volatile long replicatedUpTo = -1;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, String instanceId,
+                             Duration maxLag, long maxTrackedUsers, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.instanceId = instanceId;
+        this.maxLag = maxLag;
+        this.maxLagMillis = maxLag.toMillis();
+        // A token older than the maximum lag is covered either way: the replica has caught up
+        // past it, or it is too far behind and every read goes to the primary
+        this.writeTokens = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterWrite(maxLag)
+                .build();
+        Gauge.builder("ermn.datasource.replica.lag", this, monitor -> monitor.lagMillis())
+                .description("Milliseconds since the last heartbeat seen on the read replica")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a committed write of {@code username} (null when anonymous) and returns its token.
+     */
+    public long recordWrite(String username) {
+        long committedAt = System.currentTimeMillis();
+        if (username != null) {
+            writeTokens.put(username, committedAt);
+        }
+        return committedAt;
+    }
+
+    /**
+     * Whether a read-only transaction of {@code username} (null when anonymous) may use the replica.
+     * {@code clientToken} is the write token the client carried over from another request, or -1.
+     */
+    public boolean canReadFromReplica(String username, long clientToken) {
+        long upTo = replicatedUpTo;
+        long now = System.currentTimeMillis();
+        if (upTo < 0 || now - upTo > maxLagMillis) {
+            return false;
+        }
+        long token = -1;
+        if (username != null) {
+            Long local = writeTokens.getIfPresent(username);
+            token = local != null ? local : -1;
+        }
+        // Clients choose what they send: a token further ahead than any clock skew would pin
+        // them to the primary for good
+        if (clientToken > token && clientToken - now <= maxLagMillis) {
+            token = clientToken;
+        }
+        // A heartbeat from the same millisecond may have been written before the commit
+        return token < upTo;
+    }
+
+    /**
+     * How long a write token can matter: after that the replica has either caught up past it or
+     * every read goes to the primary anyway.
+     */
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${ermn.datasource.replica.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        try {
+            primary.update("INSERT INTO replication_heartbeats (instance_id, beat_millis) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)",
+                    instanceId, System.currentTimeMillis());
+        } catch (RuntimeException ex) {
+            log.warn("Could not write replication heartbeat: {}", ex.getMessage());
+        }
+        try {
+            List<Long> beats = replica.queryForList(
+                    "SELECT beat_millis FROM replication_heartbeats WHERE instance_id = ?", Long.class, instanceId);
+            if (!beats.isEmpty()) {
+                replicatedUpTo = beats.get(0);
+            }
+        } catch (RuntimeException ex) {
+            // Reads fall back to the primary once the last heartbeat is older than the maximum lag
+            log.warn("Could not read replication heartbeat from replica: {}", ex.getMessage());
+        }
+    }
+
+    private double lagMillis() {
+        long upTo = replicatedUpTo;
+        return upTo < 0 ? Double.NaN : System.currentTimeMillis() - upTo;
+    }
+}
@@ -0,0 +1,364 @@
+package com.ermn.config;
+
+import com.ermn.model.enums.BedType;
+import com.ermn.model.enums.BloodGroup;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.Role;
+import com.ermn.service.BookingRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Fills the database with production-scale synthetic data for load testing: users, hospitals
+ * with bed inventories, blood banks with blood inventories, ambulances, and booking history.
+ * Locations are spread around a fixed set of city clusters. The output depends only on the seed,
+ * the volumes and the day of the run (history is generated backwards from today), so two runs
+ * against empty databases on the same day produce the same rows.
+ * <p>
+ * Runs at startup with the {@code synthetic-data} profile, e.g.
+ * {@code java -jar ermn-backend.jar --spring.profiles.active=synthetic-data --ermn.synthetic-data.citizens=100000}.
+ * Rows are written with batched JDBC inserts and explicit ids after the current maximum, so
+ * the existing data is kept. If synthetic users already exist, nothing is generated.
+ */
+@Component
+@Profile("synthetic-data")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final String EMAIL_DOMAIN = "@synthetic.ermn.com";
+    private static final String PASSWORD = "password123";
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private static final City[] CITIES = {
+            new City("Bengaluru", 12.9716, 77.5946, 0.18, 9),
+            new City("Mumbai", 19.0760, 72.8777, 0.20, 10),
+            new City("Delhi", 28.6139, 77.2090, 0.20, 12),
+            new City("Chennai", 13.0827, 80.2707, 0.10, 8),
+            new City("Hyderabad", 17.3850, 78.4867, 0.10, 8),
+            new City("Kolkata", 22.5726, 88.3639, 0.10, 7),
+            new City("Pune", 18.5204, 73.8567, 0.06, 6),
+            new City("Ahmedabad", 23.0225, 72.5714, 0.06, 6),
+    };
+
+    // Relative booking volume by hour of day
+    private static final double[] HOURLY_WEIGHTS = {
+            2, 1.5, 1, 1, 1, 1.5, 3, 5, 7, 7, 6, 6, 6, 6, 6, 6, 7, 8, 8, 7, 6, 5, 4, 3
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh", "Krishna", "Ishaan", "Rohan",
+            "Ananya", "Diya", "Aadhya", "Saanvi", "Pari", "Anika", "Navya", "Meera", "Kavya", "Priya"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Iyer", "Reddy", "Nair", "Patel", "Gupta", "Rao", "Das", "Menon",
+            "Kulkarni", "Singh", "Khan", "Joshi", "Mehta", "Bose", "Pillai", "Chatterjee", "Shah", "Naidu"
+    };
+
+    public record Volumes(int hospitals, int bloodBanks, int ambulances, int citizens, long bookings,
+                          int historyDays) {
+    }
+
+    private record City(String name, double latitude, double longitude, double weight, double spreadKm) {
+    }
+
+    private record Location(int city, BigDecimal latitude, BigDecimal longitude) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final BookingRollupService bookingRollupService;
+    private final ApplicationContext applicationContext;
+    private final long seed;
+    private final int batchSize;
+    private final boolean exitWhenDone;
+    private final Volumes volumes;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                                  BookingRollupService bookingRollupService, ApplicationContext applicationContext,
+                                  @Value("${ermn.synthetic-data.seed:42}") long seed,
+                                  @Value("${ermn.synthetic-data.batch-size:5000}") int batchSize,
+                                  @Value("${ermn.synthetic-data.exit-when-done:false}") boolean exitWhenDone,
+                                  @Value("${ermn.synthetic-data.hospitals:5000}") int hospitals,
+                                  @Value("${ermn.synthetic-data.blood-banks:1000}") int bloodBanks,
+                                  @Value("${ermn.synthetic-data.ambulances:50000}") int ambulances,
+                                  @Value("${ermn.synthetic-data.citizens:1000000}") int citizens,
+                                  @Value("${ermn.synthetic-data.bookings:10000000}") long bookings,
+                                  @Value("${ermn.synthetic-data.history-days:360}") int historyDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.bookingRollupService = bookingRollupService;
+        this.applicationContext = applicationContext;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.exitWhenDone = exitWhenDone;
+        this.volumes = new Volumes(hospitals, bloodBanks, ambulances, citizens, bookings, historyDays);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate(volumes);
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    /**
+     * Generate {@code volumes} on top of the existing data. Returns {@code false} if synthetic
+     * data is already present.
+     */
+    public boolean generate(Volumes volumes) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            log.info("Synthetic data already present ({} users), skipping generation", existing);
+            return false;
+        }
+        long started = System.nanoTime();
+        log.info("Generating synthetic data with seed {}: {}", seed, volumes);
+
+        // One hash for every synthetic account; hashing a million passwords would take hours
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        long citizenIds = insertUsers("citizen", Role.CITIZEN, volumes.citizens(), passwordHash, 1);
+        long driverIds = insertUsers("driver", Role.AMBULANCE_DRIVER, volumes.ambulances(), passwordHash, 2);
+        long hospitalAdminIds = insertUsers("hospital", Role.HOSPITAL_ADMIN, volumes.hospitals(), passwordHash, 3);
+        long bloodBankAdminIds = insertUsers("bloodbank", Role.BLOOD_BANK_ADMIN, volumes.bloodBanks(), passwordHash, 4);
+
+        insertHospitals(volumes.hospitals(), hospitalAdminIds);
+        insertBloodBanks(volumes.bloodBanks(), bloodBankAdminIds);
+        List<List<Long>> ambulancesByCity = insertAmbulances(volumes.ambulances(), driverIds, now);
+        insertBookings(volumes, citizenIds, ambulancesByCity, now);
+        bookingRollupService.backfill();
+
+        log.info("Synthetic data generated in {} s", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        return true;
+    }
+
+    private long insertUsers(String kind, Role role, long count, String passwordHash, int stream) {
+        long firstId = nextId("users");
+        SplittableRandom random = random(stream);
+        insert("users", "INSERT INTO users (id, email, password_hash, full_name, phone, role, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, TRUE)", count, i -> new Object[] {
+                firstId + i,
+                kind + "." + (i + 1) + EMAIL_DOMAIN,
+                passwordHash,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                phone(random),
+                role.name()
+        });
+        return firstId;
+    }
+
+    private void insertHospitals(int count, long firstAdminId) {
+        long firstId = nextId("hospitals");
+        SplittableRandom random = random(5);
+        insert("hospitals", "INSERT INTO hospitals (id, name, address, latitude, longitude, phone, admin_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", count, i -> {
+            Location location = location(random);
+            String city = CITIES[location.city()].name();
+            return new Object[] {firstId + i, city + " Hospital " + (i + 1), "Ward " + (random.nextInt(200) + 1) + ", " + city,
+                    location.latitude(), location.longitude(), phone(random), firstAdminId + i};
+        });
+
+        BedType[] bedTypes = BedType.values();
+        insert("bed_inventory", "INSERT INTO bed_inventory (hospital_id, bed_type, total_capacity, available_count) " +
+                "VALUES (?, ?, ?, ?)", (long) count * bedTypes.length, i -> {
+            int capacity = 10 + random.nextInt(190);
+            return new Object[] {firstId + i / bedTypes.length, bedTypes[(int) (i % bedTypes.length)].name(),
+                    capacity, random.nextInt(capacity + 1)};
+        });
+    }
+
+    private void insertBloodBanks(int count, long firstAdminId) {
+        long firstId = nextId("blood_banks");
+        SplittableRandom random = random(6);
+        insert("blood_banks", "INSERT INTO blood_banks (id, name, address, latitude, longitude, phone, admin_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", count, i -> {
+            Location location = location(random);
+            String city = CITIES[location.city()].name();
+            return new Object[] {firstId + i, city + " Blood Bank " + (i + 1), "Ward " + (random.nextInt(200) + 1) + ", " + city,
+                    location.latitude(), location.longitude(), phone(random), firstAdminId + i};
+        });
+
+        BloodGroup[] groups = BloodGroup.values();
+        insert("blood_inventory", "INSERT INTO blood_inventory " +
+                "(blood_bank_id, blood_group, quantity_units, minimum_threshold, is_emergency_shortage) " +
+                "VALUES (?, ?, ?, 10, ?)", (long) count * groups.length, i -> {
+            int units = random.nextInt(60);
+            return new Object[] {firstId + i / groups.length, groups[(int) (i % groups.length)].name(), units, units < 10};
+        });
+    }
+
+    private List<List<Long>> insertAmbulances(int count, long firstDriverId, LocalDateTime now) {
+        long firstId = nextId("ambulances");
+        SplittableRandom random = random(7);
+        List<List<Long>> byCity = new ArrayList<>();
+        for (int c = 0; c < CITIES.length; c++) {
+            byCity.add(new ArrayList<>());
+        }
+        insert("ambulances", "INSERT INTO ambulances (id, driver_id, vehicle_number, is_available, " +
+                "current_latitude, current_longitude, last_updated_location, is_approved) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", count, i -> {
+            Location location = location(random);
+            byCity.get(location.city()).add(firstId + i);
+            return new Object[] {firstId + i, firstDriverId + i, "SYN-" + (i + 1), random.nextDouble() < 0.8,
+                    location.latitude(), location.longitude(),
+                    Timestamp.valueOf(now.minusSeconds(random.nextInt(3600))), random.nextDouble() < 0.95};
+        });
+        return byCity;
+    }
+
+    private void insertBookings(Volumes volumes, long firstCitizenId, List<List<Long>> ambulancesByCity,
+                                LocalDateTime now) {
+        long firstId = nextId("bookings");
+        SplittableRandom random = random(8);
+        double[] hourly = cumulative(HOURLY_WEIGHTS);
+        insert("bookings", "INSERT INTO bookings (id, citizen_id, ambulance_id, pickup_latitude, pickup_longitude, " +
+                "destination_latitude, destination_longitude, status, requested_at, assigned_at, arrived_at, completed_at, " +
+                "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", volumes.bookings(), i -> {
+            Location pickup = location(random);
+            Location destination = near(random, pickup);
+            LocalDateTime requestedAt = now.truncatedTo(ChronoUnit.DAYS)
+                    .minusDays(1 + random.nextInt(Math.max(1, volumes.historyDays())))
+                    .plusHours(pick(random, hourly))
+                    .plusSeconds(random.nextInt(3600));
+
+            List<Long> cityAmbulances = ambulancesByCity.get(pickup.city());
+            boolean cancelled = random.nextDouble() < 0.08 || cityAmbulances.isEmpty();
+            boolean assigned = !cancelled || random.nextBoolean();
+            Long ambulanceId = null;
+            LocalDateTime assignedAt = null;
+            LocalDateTime arrivedAt = null;
+            LocalDateTime completedAt = null;
+            if (assigned && !cityAmbulances.isEmpty()) {
+                ambulanceId = cityAmbulances.get(random.nextInt(cityAmbulances.size()));
+                // Dispatch within a few minutes, with a long tail
+                assignedAt = requestedAt.plusSeconds(30 + (long) (-180 * Math.log(1 - random.nextDouble())));
+                if (!cancelled) {
+                    arrivedAt = assignedAt.plusSeconds(180 + random.nextInt(540));
+                    completedAt = arrivedAt.plusMinutes(12 + random.nextInt(75));
+                }
+            }
+            return new Object[] {firstId + i, firstCitizenId + random.nextInt(Math.max(1, volumes.citizens())),
+                    ambulanceId, pickup.latitude(), pickup.longitude(), destination.latitude(), destination.longitude(),
+                    (cancelled ? BookingStatus.CANCELLED : BookingStatus.COMPLETED).name(),
+                    Timestamp.valueOf(requestedAt), timestamp(assignedAt), timestamp(arrivedAt), timestamp(completedAt),
+                    Timestamp.valueOf(requestedAt)};
+        });
+    }
+
+    private void insert(String table, String sql, long count, LongFunction<Object[]> row) {
+        long started = System.nanoTime();
+        int reportedDecile = 0;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (long i = 0; i < count; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == batchSize || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+                int decile = (int) ((i + 1) * 10 / count);
+                if (decile > reportedDecile) {
+                    reportedDecile = decile;
+                    long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                    log.info("{}: {}/{} rows ({}%), {} rows/s", table, i + 1, count, decile * 10,
+                            (i + 1) * 1000 / elapsedMillis);
+                }
+            }
+        }
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    // Independent stream per table, so changing one volume leaves the other tables unchanged
+    private SplittableRandom random(int stream) {
+        return new SplittableRandom(seed * 1_000_003L + stream);
+    }
+
+    private static Location location(SplittableRandom random) {
+        double r = random.nextDouble();
+        int city = 0;
+        for (double cumulative = CITIES[0].weight(); r > cumulative && city < CITIES.length - 1; ) {
+            cumulative += CITIES[++city].weight();
+        }
+        City center = CITIES[city];
+        return offset(random, city, center.latitude(), center.longitude(), center.spreadKm());
+    }
+
+    private static Location near(SplittableRandom random, Location from) {
+        return offset(random, from.city(), from.latitude().doubleValue(), from.longitude().doubleValue(), 4);
+    }
+
+    private static Location offset(SplittableRandom random, int city, double latitude, double longitude,
+                                   double spreadKm) {
+        double northKm = gaussian(random) * spreadKm;
+        double eastKm = gaussian(random) * spreadKm;
+        double lat = latitude + northKm / KM_PER_DEGREE;
+        double lon = longitude + eastKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+        return new Location(city, BigDecimal.valueOf(lat).setScale(6, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(lon).setScale(6, RoundingMode.HALF_UP));
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i] / total;
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(SplittableRandom random, double[] cumulative) {
+        double r = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (r < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.valueOf(6_000_000_000L + random.nextLong(4_000_000_000L));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -1,7 +1,17 @@
 package com.ermn.config;
 
+import com.ermn.monitoring.SqlBudgetChannelInterceptor;
+import com.ermn.monitoring.SqlBudgetTracker;
+import com.ermn.security.StompAuthenticationInterceptor;
+import com.ermn.websocket.WebSocketMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -10,10 +20,28 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final Environment environment;
+    private final int virtualInboundConcurrency;
+    private final WebSocketMetrics webSocketMetrics;
+    private final SqlBudgetTracker sqlBudgetTracker;
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    public WebSocketConfig(Environment environment,
+                           @Value("${ermn.websocket.virtual-inbound-concurrency:256}") int virtualInboundConcurrency,
+                           WebSocketMetrics webSocketMetrics, SqlBudgetTracker sqlBudgetTracker,
+                           StompAuthenticationInterceptor stompAuthenticationInterceptor) {
+        this.environment = environment;
+        this.virtualInboundConcurrency = virtualInboundConcurrency;
+        this.webSocketMetrics = webSocketMetrics;
+        this.sqlBudgetTracker = sqlBudgetTracker;
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.configureBrokerChannel().interceptors(webSocketMetrics.brokerChannelInterceptor());
     }
 
     @Override
@@ -22,4 +50,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(webSocketMetrics.clientOutboundChannelInterceptor());
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled}, {@code @MessageMapping} handlers run on virtual
+     * threads. The channel only accepts a thread pool, so the pool creates virtual threads and its
+     * size caps how many inbound messages are handled at once; idle threads are not kept.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor, new SqlBudgetChannelInterceptor(sqlBudgetTracker));
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor("clientInboundChannel-").getVirtualThreadFactory());
+        executor.setCorePoolSize(virtualInboundConcurrency);
+        executor.setMaxPoolSize(virtualInboundConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(1);
+        registration.taskExecutor(executor);
+    }
 }
@@ -7,23 +7,36 @@ import com.ermn.model.dto.response.AmbulanceResponse;
 import com.ermn.model.dto.response.BloodBankResponse;
 import com.ermn.model.dto.response.HospitalResponse;
 import com.ermn.model.dto.response.UserResponse;
+import com.ermn.model.dto.response.UserSearchResponse;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.ExportFormat;
+import com.ermn.model.enums.Role;
 import com.ermn.service.AdminService;
+import com.ermn.service.BookingExportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
     private final AdminService adminService;
+    private final BookingExportService bookingExportService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, BookingExportService bookingExportService) {
         this.adminService = adminService;
+        this.bookingExportService = bookingExportService;
     }
 
     @GetMapping("/dashboard")
@@ -31,6 +44,25 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getDashboardMetrics());
     }
 
+    @PostMapping("/bookings/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildBookingRollups() {
+        return ResponseEntity.ok(Map.of("buckets", adminService.rebuildBookingRollups()));
+    }
+
+    @GetMapping("/bookings/export")
+    public void exportBookings(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BookingStatus status,
+            HttpServletResponse response) throws IOException {
+        String extension = format == ExportFormat.NDJSON ? "ndjson" : "csv";
+        response.setContentType(format == ExportFormat.NDJSON ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + extension + "\"");
+        bookingExportService.exportBookings(format, from, to, status, response.getWriter());
+    }
+
     @GetMapping("/ambulances/pending")
     public ResponseEntity<List<AmbulanceResponse>> getPendingAmbulances() {
         return ResponseEntity.ok(adminService.getPendingAmbulances());
@@ -48,6 +80,17 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllUsers(pageable, role));
     }
 
+    @GetMapping("/users/search")
+    public ResponseEntity<UserSearchResponse> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(adminService.searchUsers(q, role, isActive, after, limit, includeTotal));
+    }
+
     @PutMapping("/users/{id}/status")
     public ResponseEntity<UserResponse> updateUserStatus(
             @PathVariable Long id,
@@ -4,6 +4,7 @@ import com.ermn.model.dto.request.BloodInventoryUpdateRequest;
 import com.ermn.model.dto.response.BloodBankResponse;
 import com.ermn.model.dto.response.BloodInventoryResponse;
 import com.ermn.model.enums.BloodGroup;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.service.BloodBankService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -26,8 +27,11 @@ public class BloodBankController {
     @GetMapping
     public ResponseEntity<List<BloodBankResponse>> getAllBloodBanks(
             @RequestParam(required = false) BigDecimal latitude,
-            @RequestParam(required = false) BigDecimal longitude) {
-        return ResponseEntity.ok(bloodBankService.getAllBloodBanks(latitude, longitude));
+            @RequestParam(required = false) BigDecimal longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(bloodBankService.getAllBloodBanks(
+                Coordinate.ofDecimal(latitude), Coordinate.ofDecimal(longitude), radiusKm, limit));
     }
 
     @GetMapping("/my-blood-bank")
@@ -40,7 +44,8 @@ public class BloodBankController {
             @RequestParam BloodGroup bloodGroup,
             @RequestParam(required = false) BigDecimal latitude,
             @RequestParam(required = false) BigDecimal longitude) {
-        return ResponseEntity.ok(bloodBankService.searchBloodBanks(bloodGroup, latitude, longitude));
+        return ResponseEntity.ok(bloodBankService.searchBloodBanks(bloodGroup, 
+                Coordinate.ofDecimal(latitude), Coordinate.ofDecimal(longitude)));
     }
 
     @GetMapping("/{id}/inventory")
@@ -3,6 +3,7 @@ package com.ermn.controller;
 import com.ermn.model.dto.request.BedInventoryUpdateRequest;
 import com.ermn.model.dto.response.BedInventoryResponse;
 import com.ermn.model.dto.response.HospitalResponse;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.service.HospitalService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -25,8 +26,11 @@ public class HospitalController {
     @GetMapping
     public ResponseEntity<List<HospitalResponse>> getAllHospitals(
             @RequestParam(required = false) BigDecimal latitude,
-            @RequestParam(required = false) BigDecimal longitude) {
-        return ResponseEntity.ok(hospitalService.getAllHospitals(latitude, longitude));
+            @RequestParam(required = false) BigDecimal longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(hospitalService.getAllHospitals(
+                Coordinate.ofDecimal(latitude), Coordinate.ofDecimal(longitude), radiusKm, limit));
     }
 
     @GetMapping("/my-hospital")
@@ -39,7 +43,8 @@ public class HospitalController {
             @PathVariable Long id,
             @RequestParam(required = false) BigDecimal latitude,
             @RequestParam(required = false) BigDecimal longitude) {
-        return ResponseEntity.ok(hospitalService.getHospital(id, latitude, longitude));
+        return ResponseEntity.ok(hospitalService.getHospital(id, 
+                Coordinate.ofDecimal(latitude), Coordinate.ofDecimal(longitude)));
     }
 
     @GetMapping("/{id}/beds")
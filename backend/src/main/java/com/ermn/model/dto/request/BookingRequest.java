@@ -1,5 +1,7 @@
 package com.ermn.model.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -8,11 +10,20 @@ import java.math.BigDecimal;
 @Data
 public class BookingRequest {
     @NotNull(message = "Pickup latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
     private BigDecimal pickupLatitude;
 
     @NotNull(message = "Pickup longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
     private BigDecimal pickupLongitude;
 
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
     private BigDecimal destinationLatitude;
+
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
     private BigDecimal destinationLongitude;
 }
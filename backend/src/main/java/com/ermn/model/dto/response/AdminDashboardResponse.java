@@ -15,6 +15,9 @@ public class AdminDashboardResponse {
     private Long totalBookingsMonth;
     private Long activeAmbulances;
     private Double averageResponseTimeSeconds;
+    private ResponseTimePercentiles dispatchTimePercentiles;
+    private ResponseTimePercentiles arrivalTimePercentiles;
+    private ResponseTimePercentiles tripTimePercentiles;
     private Double bedOccupancyPercentage;
     private Long bloodShortageAlerts;
     private Long pendingAmbulanceApprovals;
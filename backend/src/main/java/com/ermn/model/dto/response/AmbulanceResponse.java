@@ -1,11 +1,11 @@
 package com.ermn.model.dto.response;
 
+import com.ermn.model.geo.Coordinate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -16,8 +16,8 @@ public class AmbulanceResponse {
     private Long id;
     private String vehicleNumber;
     private Boolean isAvailable;
-    private BigDecimal currentLatitude;
-    private BigDecimal currentLongitude;
+    private Coordinate currentLatitude;
+    private Coordinate currentLongitude;
     private LocalDateTime lastUpdatedLocation;
     private Boolean isApproved;
 }
@@ -1,24 +1,24 @@
 package com.ermn.model.dto.response;
 
+import com.ermn.model.geo.Coordinate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class BloodBankResponse {
     private Long id;
     private String name;
     private String address;
-    private BigDecimal latitude;
-    private BigDecimal longitude;
+    private Coordinate latitude;
+    private Coordinate longitude;
     private String phone;
     private Double distanceKm;
     private List<BloodInventoryResponse> inventories;
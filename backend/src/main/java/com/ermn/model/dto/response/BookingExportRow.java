@@ -0,0 +1,42 @@
+package com.ermn.model.dto.response;
+
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.geo.Coordinate;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a booking with its citizen and ambulance columns, selected in one
+ * joined query for audit exports. Constructor argument order is used by the JPQL query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "status", "requestedAt", "assignedAt", "completedAt", "createdAt",
+        "pickupLatitude", "pickupLongitude", "destinationLatitude", "destinationLongitude",
+        "citizenId", "citizenName", "citizenEmail", "citizenPhone",
+        "ambulanceId", "vehicleNumber", "driverId", "driverName"})
+public class BookingExportRow {
+    private Long id;
+    private BookingStatus status;
+    private LocalDateTime requestedAt;
+    private LocalDateTime assignedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+    private Coordinate pickupLatitude;
+    private Coordinate pickupLongitude;
+    private Coordinate destinationLatitude;
+    private Coordinate destinationLongitude;
+    private Long citizenId;
+    private String citizenName;
+    private String citizenEmail;
+    private String citizenPhone;
+    private Long ambulanceId;
+    private String vehicleNumber;
+    private Long driverId;
+    private String driverName;
+}
@@ -1,12 +1,12 @@
 package com.ermn.model.dto.response;
 
 import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.geo.Coordinate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,10 +17,10 @@ public class BookingResponse {
     private Long id;
     private UserResponse citizen;
     private AmbulanceResponse ambulance;
-    private BigDecimal pickupLatitude;
-    private BigDecimal pickupLongitude;
-    private BigDecimal destinationLatitude;
-    private BigDecimal destinationLongitude;
+    private Coordinate pickupLatitude;
+    private Coordinate pickupLongitude;
+    private Coordinate destinationLatitude;
+    private Coordinate destinationLongitude;
     private BookingStatus status;
     private LocalDateTime requestedAt;
     private LocalDateTime assignedAt;
@@ -0,0 +1,17 @@
+package com.ermn.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseTimePercentiles {
+    private Double p50Seconds;
+    private Double p90Seconds;
+    private Double p99Seconds;
+    private Long sampleCount;
+}
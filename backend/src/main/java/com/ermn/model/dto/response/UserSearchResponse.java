@@ -0,0 +1,18 @@
+package com.ermn.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResponse {
+    private List<UserResponse> users;
+    private Long nextCursor;
+    private Long total;
+}
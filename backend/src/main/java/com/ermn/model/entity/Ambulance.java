@@ -1,5 +1,6 @@
 package com.ermn.model.entity;
 
+import com.ermn.model.geo.Coordinate;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +8,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -37,10 +37,10 @@ public class Ambulance {
     private Boolean isAvailable = true;
 
     @Column(name = "current_latitude", precision = 10, scale = 8)
-    private BigDecimal currentLatitude;
+    private Coordinate currentLatitude;
 
     @Column(name = "current_longitude", precision = 11, scale = 8)
-    private BigDecimal currentLongitude;
+    private Coordinate currentLongitude;
 
     @Column(name = "last_updated_location")
     private LocalDateTime lastUpdatedLocation;
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bed_inventory", indexes = {
-    @Index(name = "idx_hospital_bed_type", columnList = "hospital_id,bed_type")
+    @Index(name = "idx_hospital_bed_type", columnList = "hospital_id,bed_type"),
+    @Index(name = "idx_last_updated", columnList = "last_updated")
 }, uniqueConstraints = {
     @UniqueConstraint(name = "uk_hospital_bed_type", columnNames = {"hospital_id", "bed_type"})
 })
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "blood_inventory", indexes = {
     @Index(name = "idx_blood_bank_group", columnList = "blood_bank_id,blood_group"),
-    @Index(name = "idx_emergency_shortage", columnList = "is_emergency_shortage")
+    @Index(name = "idx_emergency_shortage", columnList = "is_emergency_shortage"),
+    @Index(name = "idx_last_updated", columnList = "last_updated")
 }, uniqueConstraints = {
     @UniqueConstraint(name = "uk_blood_bank_group", columnNames = {"blood_bank_id", "blood_group"})
 })
@@ -1,6 +1,7 @@
 package com.ermn.model.entity;
 
 import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.geo.Coordinate;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,7 +9,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -36,29 +36,32 @@ public class Booking {
     private Ambulance ambulance;
 
     @Column(name = "pickup_latitude", precision = 10, scale = 8, nullable = false)
-    private BigDecimal pickupLatitude;
+    private Coordinate pickupLatitude;
 
     @Column(name = "pickup_longitude", precision = 11, scale = 8, nullable = false)
-    private BigDecimal pickupLongitude;
+    private Coordinate pickupLongitude;
 
     @Column(name = "destination_latitude", precision = 10, scale = 8)
-    private BigDecimal destinationLatitude;
+    private Coordinate destinationLatitude;
 
     @Column(name = "destination_longitude", precision = 11, scale = 8)
-    private BigDecimal destinationLongitude;
+    private Coordinate destinationLongitude;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
     private BookingStatus status = BookingStatus.REQUESTED;
 
-    @Column(name = "requested_at")
+    @Column(name = "requested_at", nullable = false)
     @Builder.Default
     private LocalDateTime requestedAt = LocalDateTime.now();
 
     @Column(name = "assigned_at")
     private LocalDateTime assignedAt;
 
+    @Column(name = "arrived_at")
+    private LocalDateTime arrivedAt;
+
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
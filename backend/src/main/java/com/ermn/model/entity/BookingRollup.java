@@ -0,0 +1,47 @@
+package com.ermn.model.entity;
+
+import com.ermn.model.enums.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hourly booking counters per status and pickup region, maintained incrementally
+ * by {@link com.ermn.service.BookingRollupService} as bookings change state.
+ */
+@Entity
+@Table(name = "booking_rollups", indexes = {
+    @Index(name = "idx_status_bucket", columnList = "status,bucket_start")
+})
+@IdClass(BookingRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingRollup {
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Id
+    @Column(name = "region_key", nullable = false, length = 32)
+    private String regionKey;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    @Column(name = "response_time_sum", nullable = false)
+    private Long responseTimeSum;
+
+    @Column(name = "response_time_count", nullable = false)
+    private Long responseTimeCount;
+}
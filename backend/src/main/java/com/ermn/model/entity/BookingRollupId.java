@@ -0,0 +1,18 @@
+package com.ermn.model.entity;
+
+import com.ermn.model.enums.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRollupId implements Serializable {
+    private LocalDateTime bucketStart;
+    private BookingStatus status;
+    private String regionKey;
+}
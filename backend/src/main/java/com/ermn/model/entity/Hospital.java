@@ -1,19 +1,21 @@
 package com.ermn.model.entity;
 
+import com.ermn.model.geo.Coordinate;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "hospitals", indexes = {
     @Index(name = "idx_location", columnList = "latitude,longitude"),
-    @Index(name = "idx_admin_id", columnList = "admin_id")
+    @Index(name = "idx_admin_id", columnList = "admin_id"),
+    @Index(name = "idx_updated_at", columnList = "updated_at")
 })
 @Data
 @NoArgsConstructor
@@ -31,10 +33,10 @@ public class Hospital {
     private String address;
 
     @Column(precision = 10, scale = 8, nullable = false)
-    private BigDecimal latitude;
+    private Coordinate latitude;
 
     @Column(precision = 11, scale = 8, nullable = false)
-    private BigDecimal longitude;
+    private Coordinate longitude;
 
     private String phone;
 
@@ -45,4 +47,8 @@ public class Hospital {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,45 @@
+package com.ermn.model.entity;
+
+import com.ermn.model.enums.ResponseTimeMetric;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compressed HdrHistogram of one response-time metric for one hour. Sketches from
+ * different hours or instances are merged by adding histograms; raw samples are never stored.
+ */
+@Entity
+@Table(name = "response_time_sketches", indexes = {
+    @Index(name = "idx_metric_bucket", columnList = "metric,bucket_start")
+})
+@IdClass(ResponseTimeSketchId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseTimeSketch {
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ResponseTimeMetric metric;
+
+    @Column(nullable = false, length = 8192)
+    private byte[] histogram;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
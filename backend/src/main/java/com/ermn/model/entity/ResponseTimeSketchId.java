@@ -0,0 +1,17 @@
+package com.ermn.model.entity;
+
+import com.ermn.model.enums.ResponseTimeMetric;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseTimeSketchId implements Serializable {
+    private LocalDateTime bucketStart;
+    private ResponseTimeMetric metric;
+}
@@ -14,8 +14,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_email", columnList = "email"),
-    @Index(name = "idx_role", columnList = "role"),
-    @Index(name = "idx_is_active", columnList = "is_active")
+    @Index(name = "idx_role_active", columnList = "role,is_active"),
+    @Index(name = "idx_is_active", columnList = "is_active"),
+    @Index(name = "idx_updated_at", columnList = "updated_at,id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,6 @@
+package com.ermn.model.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,7 @@
+package com.ermn.model.enums;
+
+public enum ResponseTimeMetric {
+    DISPATCH,
+    ARRIVAL,
+    TRIP
+}
@@ -0,0 +1,80 @@
+package com.ermn.model.geo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A latitude or longitude as a fixed-point integer of 10^-7 degrees (about 1 cm), which holds
+ * any value in [-180, 180] in an {@code int}. Used in place of {@link BigDecimal} so that entities
+ * and responses carry 16 bytes per coordinate instead of a 40 byte {@link BigDecimal}, and
+ * distance calculations work on primitives.
+ * <p>
+ * Serialized to JSON as a plain number in degrees, e.g. {@code 12.9716}, and stored in the
+ * existing DECIMAL columns through {@link CoordinateConverter}.
+ */
+@JsonSerialize(using = Coordinate.Serializer.class)
+public record Coordinate(int e7) {
+
+    public static final int SCALE = 7;
+    private static final double UNITS_PER_DEGREE = 1e7;
+
+    // Not a JSON creator: Jackson would read plain integers through it as 10^-7 degrees
+    @JsonCreator(mode = JsonCreator.Mode.DISABLED)
+    public Coordinate {
+    }
+
+    public static Coordinate ofDegrees(double degrees) {
+        if (!(Math.abs(degrees) <= 180.0)) {
+            throw new IllegalArgumentException("Coordinate out of range: " + degrees);
+        }
+        return new Coordinate((int) Math.round(degrees * UNITS_PER_DEGREE));
+    }
+
+    /**
+     * Rounds to the nearest 10^-7 degrees; {@code null} for a {@code null} value, as for optional
+     * request fields. Also reads JSON numbers and numeric strings, exactly as they are written.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Coordinate ofDecimal(BigDecimal degrees) {
+        if (degrees == null) {
+            return null;
+        }
+        if (degrees.abs().compareTo(BigDecimal.valueOf(180)) > 0) {
+            throw new IllegalArgumentException("Coordinate out of range: " + degrees);
+        }
+        return new Coordinate(degrees.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().intValueExact());
+    }
+
+    public double degrees() {
+        return e7 / UNITS_PER_DEGREE;
+    }
+
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(e7, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().stripTrailingZeros().toPlainString();
+    }
+
+    // Writes the double directly; @JsonValue would call degrees() reflectively and box the result
+    static final class Serializer extends StdSerializer<Coordinate> {
+
+        Serializer() {
+            super(Coordinate.class);
+        }
+
+        @Override
+        public void serialize(Coordinate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.degrees());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ermn.model.geo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Coordinate} attributes to the DECIMAL coordinate columns. Applied to every
+ * {@link Coordinate} attribute, so entities need no {@code @Convert}; the columns and the
+ * spatial columns generated from them are unchanged.
+ */
+@Converter(autoApply = true)
+public class CoordinateConverter implements AttributeConverter<Coordinate, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Coordinate coordinate) {
+        return coordinate == null ? null : coordinate.toDecimal();
+    }
+
+    @Override
+    public Coordinate convertToEntityAttribute(BigDecimal value) {
+        return Coordinate.ofDecimal(value);
+    }
+}
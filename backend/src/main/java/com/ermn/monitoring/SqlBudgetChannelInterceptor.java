@@ -0,0 +1,69 @@
+package com.ermn.monitoring;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessageMappingInfo;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.util.PathMatcher;
+
+
+/**
+ * Tracks the SQL of each inbound STOMP message handled by a {@code @MessageMapping} method,
+ * grouped by the matched destination pattern, e.g. {@code STOMP /app/tracking/update}, or
+ * {@code STOMP UNMAPPED}, so that clients cannot create a meter per destination they send to.
+ * Interceptors on the inbound channel run once per subscribed handler; the broker handlers do
+ * not touch the database and are skipped.
+ */
+public class SqlBudgetChannelInterceptor implements ExecutorChannelInterceptor {
+
+    private final SqlBudgetTracker tracker;
+    private final ThreadLocal<SqlBudgetTracker.Scope> handling = new ThreadLocal<>();
+
+    public SqlBudgetChannelInterceptor(SqlBudgetTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (handler instanceof SimpAnnotationMethodMessageHandler
+                && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            handling.set(tracker.begin());
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SqlBudgetTracker.Scope scope = handling.get();
+        if (scope != null) {
+            handling.remove();
+            tracker.end(scope, "STOMP " + matchedPattern((SimpAnnotationMethodMessageHandler) handler,
+                    SimpMessageHeaderAccessor.getDestination(message.getHeaders())));
+        }
+    }
+
+    private static String matchedPattern(SimpAnnotationMethodMessageHandler handler, String destination) {
+        if (destination == null) {
+            return "UNMAPPED";
+        }
+        for (String prefix : handler.getDestinationPrefixes()) {
+            if (destination.startsWith(prefix)) {
+                String lookup = destination.substring(prefix.length() - (prefix.endsWith("/") ? 1 : 0));
+                PathMatcher pathMatcher = handler.getPathMatcher();
+                return handler.getHandlerMethods().keySet().stream()
+                        .filter(mapping -> mapping.getMessageTypeMessageCondition().getMessageType() == SimpMessageType.MESSAGE)
+                        .map(SimpMessageMappingInfo::getDestinationConditions)
+                        .flatMap(condition -> condition.getPatterns().stream())
+                        .filter(pattern -> pathMatcher.match(pattern, lookup))
+                        .min(pathMatcher.getPatternComparator(lookup))
+                        .map(pattern -> prefix + (prefix.endsWith("/") ? pattern.substring(1) : pattern))
+                        .orElse("UNMAPPED");
+            }
+        }
+        return "UNMAPPED";
+    }
+}
@@ -0,0 +1,218 @@
+package com.ermn.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Interceptor;
+import org.hibernate.SessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Counts the SQL statements, loaded entities and JDBC execution time of each HTTP request and
+ * STOMP message, and flags statements that run repeatedly within one of them as N+1 suspects.
+ * <p>
+ * Usage is collected per thread between {@link #begin()} and {@link #end}, so work handed to
+ * another thread ({@code @Async}, streamed responses) is not counted. Only statements issued
+ * through Hibernate are seen; {@code JdbcTemplate} calls are not. A request over its budget
+ * ({@code ermn.sql-budget.max-statements}, overridden per endpoint with
+ * {@code ermn.sql-budget.endpoints[GET /api/...]}) or with repeated statements is logged and
+ * counted.
+ */
+@Component
+public class SqlBudgetTracker implements StatementInspector, Interceptor, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetTracker.class);
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int repeatThreshold;
+    private final Map<String, Integer> endpointBudgets;
+    private final List<Consumer<SqlUsage>> listeners = new CopyOnWriteArrayList<>();
+
+    public SqlBudgetTracker(MeterRegistry meterRegistry, Environment environment,
+                            @Value("${ermn.sql-budget.enabled:true}") boolean enabled,
+                            @Value("${ermn.sql-budget.max-statements:20}") int maxStatements,
+                            @Value("${ermn.sql-budget.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+        this.endpointBudgets = Binder.get(environment)
+                .bind("ermn.sql-budget.endpoints", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (!enabled) {
+            return;
+        }
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+    }
+
+    /**
+     * Start collecting on the current thread. Returns {@code null} when tracking is disabled or
+     * already active, in which case the statements count towards the enclosing scope.
+     */
+    Scope begin() {
+        if (!enabled || CURRENT.get() != null) {
+            return null;
+        }
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    void end(Scope scope, String endpoint) {
+        if (scope == null) {
+            return;
+        }
+        CURRENT.remove();
+
+        SqlUsage usage = scope.toUsage(endpoint, repeatThreshold);
+        DistributionSummary.builder("ermn.sql.statements")
+                .description("SQL statements per request or message")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(usage.statements());
+
+        int budget = endpointBudgets.getOrDefault(endpoint, maxStatements);
+        boolean overBudget = usage.statements() > budget;
+        if (overBudget) {
+            Counter.builder("ermn.sql.budget.exceeded")
+                    .description("Requests or messages that issued more SQL statements than their budget")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (!usage.repeatedStatements().isEmpty()) {
+            Counter.builder("ermn.sql.repeated")
+                    .description("Requests or messages that ran an identical statement repeatedly")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (overBudget || !usage.repeatedStatements().isEmpty()) {
+            log.warn("{} issued {} SQL statements (budget {}), loaded {} entities, {} ms in JDBC; repeated: {}",
+                    endpoint, usage.statements(), budget, usage.entitiesLoaded(), usage.jdbcTime().toMillis(),
+                    usage.repeatedStatements());
+        }
+        for (Consumer<SqlUsage> listener : listeners) {
+            listener.accept(usage);
+        }
+    }
+
+    /**
+     * Run {@code work} as its own tracked unit, for callers outside HTTP and STOMP handling.
+     */
+    public void track(String endpoint, Runnable work) {
+        Scope scope = begin();
+        try {
+            work.run();
+        } finally {
+            end(scope, endpoint);
+        }
+    }
+
+    public void addListener(Consumer<SqlUsage> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<SqlUsage> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements.merge(sql, 1, Integer::sum);
+            scope.statementCount++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.entitiesLoaded++;
+        }
+        return false;
+    }
+
+    static final class Scope {
+
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int statementCount;
+        private long entitiesLoaded;
+        private long jdbcNanos;
+
+        SqlUsage toUsage(String endpoint, int repeatThreshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((sql, count) -> {
+                if (count >= repeatThreshold) {
+                    repeated.put(sql.replaceAll("\\s+", " ").trim(), count);
+                }
+            });
+            return new SqlUsage(endpoint, statementCount, entitiesLoaded, Duration.ofNanos(jdbcNanos), repeated);
+        }
+    }
+
+    /**
+     * Created by Hibernate for every session, from {@code hibernate.session.events.auto}.
+     */
+    public static class JdbcTimingListener implements SessionEventListener {
+
+        private long executeStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            addJdbcTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            addJdbcTime();
+        }
+
+        private void addJdbcTime() {
+            Scope scope = CURRENT.get();
+            if (scope != null) {
+                scope.jdbcNanos += System.nanoTime() - executeStart;
+            }
+        }
+    }
+}
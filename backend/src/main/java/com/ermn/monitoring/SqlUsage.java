@@ -0,0 +1,13 @@
+package com.ermn.monitoring;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * SQL issued while handling one HTTP request or STOMP message. {@code repeatedStatements} holds
+ * the statements that ran at least {@code ermn.sql-budget.repeat-threshold} times, with their
+ * counts: the usual sign of an N+1 query.
+ */
+public record SqlUsage(String endpoint, int statements, long entitiesLoaded, Duration jdbcTime,
+                       Map<String, Integer> repeatedStatements) {
+}
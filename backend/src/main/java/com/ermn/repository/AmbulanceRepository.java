@@ -7,7 +7,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +20,24 @@ public interface AmbulanceRepository extends JpaRepository<Ambulance, Long> {
     @Query("SELECT a FROM Ambulance a WHERE a.isAvailable = true AND a.isApproved = true " +
            "AND a.currentLatitude IS NOT NULL AND a.currentLongitude IS NOT NULL")
     List<Ambulance> findAvailableApprovedAmbulancesWithLocation();
+
+    @Query(value = "SELECT a.* FROM ambulances a WHERE a.is_available = TRUE AND a.is_approved = TRUE " +
+                   "AND a.current_latitude IS NOT NULL AND a.current_longitude IS NOT NULL " +
+                   "AND MBRContains(ST_GeomFromText(:boundingBox, 4326, 'axis-order=long-lat'), a.location) " +
+                   "AND ST_Distance_Sphere(a.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) <= :radiusMeters " +
+                   "ORDER BY ST_Distance_Sphere(a.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Ambulance> findAvailableApprovedWithinRadius(@Param("latitude") double latitude,
+                                                      @Param("longitude") double longitude,
+                                                      @Param("boundingBox") String boundingBox,
+                                                      @Param("radiusMeters") double radiusMeters,
+                                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT a.* FROM ambulances a WHERE a.is_available = TRUE AND a.is_approved = TRUE " +
+                   "AND a.current_latitude IS NOT NULL AND a.current_longitude IS NOT NULL " +
+                   "ORDER BY ST_Distance_Sphere(a.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Ambulance> findNearestAvailableApproved(@Param("latitude") double latitude,
+                                                 @Param("longitude") double longitude,
+                                                 @Param("limit") int limit);
 }
@@ -8,12 +8,14 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BedInventoryRepository extends JpaRepository<BedInventory, Long> {
     List<BedInventory> findByHospital(Hospital hospital);
+    List<BedInventory> findByHospitalIn(Collection<Hospital> hospitals);
     Optional<BedInventory> findByHospitalAndBedType(Hospital hospital, BedType bedType);
     
     @Query("SELECT SUM(bi.totalCapacity) FROM BedInventory bi")
@@ -3,11 +3,37 @@ package com.ermn.repository;
 import com.ermn.model.entity.BloodBank;
 import com.ermn.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BloodBankRepository extends JpaRepository<BloodBank, Long> {
     Optional<BloodBank> findByAdmin(User admin);
+
+    @Query(value = "SELECT b.id FROM blood_banks b " +
+                   "WHERE MBRContains(ST_GeomFromText(:boundingBox, 4326, 'axis-order=long-lat'), b.location) " +
+                   "AND ST_Distance_Sphere(b.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) <= :radiusMeters " +
+                   "ORDER BY ST_Distance_Sphere(b.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsWithinRadius(@Param("latitude") double latitude,
+                                   @Param("longitude") double longitude,
+                                   @Param("boundingBox") String boundingBox,
+                                   @Param("radiusMeters") double radiusMeters,
+                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT b.id FROM blood_banks b " +
+                   "ORDER BY ST_Distance_Sphere(b.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findNearestIds(@Param("latitude") double latitude,
+                              @Param("longitude") double longitude,
+                              @Param("limit") int limit);
+
+    @Query(value = "SELECT b.id FROM blood_banks b WHERE b.updated_at >= :since " +
+                   "UNION SELECT i.blood_bank_id FROM blood_inventory i WHERE i.last_updated >= :since", nativeQuery = true)
+    List<Long> findIdsChangedSince(@Param("since") LocalDateTime since);
 }
@@ -8,12 +8,14 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BloodInventoryRepository extends JpaRepository<BloodInventory, Long> {
     List<BloodInventory> findByBloodBank(BloodBank bloodBank);
+    List<BloodInventory> findByBloodBankIn(Collection<BloodBank> bloodBanks);
     Optional<BloodInventory> findByBloodBankAndBloodGroup(BloodBank bloodBank, BloodGroup bloodGroup);
     List<BloodInventory> findByIsEmergencyShortageTrue();
     
@@ -1,16 +1,21 @@
 package com.ermn.repository;
 
+import com.ermn.model.dto.response.BookingExportRow;
 import com.ermn.model.entity.Booking;
 import com.ermn.model.entity.User;
 import com.ermn.model.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -31,4 +36,22 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "WHERE b.status IN ('ASSIGNED', 'EN_ROUTE', 'ARRIVED', 'COMPLETED') " +
            "AND b.assignedAt IS NOT NULL AND b.requestedAt >= :startDate")
     Double calculateAverageResponseTime(@Param("startDate") LocalDateTime startDate);
+
+    // A fetch size of Integer.MIN_VALUE makes Connector/J stream rows one at a time
+    // instead of buffering the whole result set in the heap
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ermn.model.dto.response.BookingExportRow(" +
+           "b.id, b.status, b.requestedAt, b.assignedAt, b.completedAt, b.createdAt, " +
+           "b.pickupLatitude, b.pickupLongitude, b.destinationLatitude, b.destinationLongitude, " +
+           "c.id, c.fullName, c.email, c.phone, a.id, a.vehicleNumber, d.id, d.fullName) " +
+           "FROM Booking b JOIN b.citizen c LEFT JOIN b.ambulance a LEFT JOIN a.driver d " +
+           "WHERE b.requestedAt >= :from AND b.requestedAt < :to " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.requestedAt, b.id")
+    Stream<BookingExportRow> streamForExport(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("status") BookingStatus status);
 }
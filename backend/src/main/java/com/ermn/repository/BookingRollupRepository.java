@@ -0,0 +1,61 @@
+package com.ermn.repository;
+
+import com.ermn.model.entity.BookingRollup;
+import com.ermn.model.entity.BookingRollupId;
+import com.ermn.model.enums.BookingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface BookingRollupRepository extends JpaRepository<BookingRollup, BookingRollupId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO booking_rollups " +
+           "(bucket_start, status, region_key, booking_count, response_time_sum, response_time_count) " +
+           "VALUES (:bucketStart, :status, :regionKey, :countDelta, :responseTimeDelta, :responseCountDelta) AS delta " +
+           "ON DUPLICATE KEY UPDATE booking_count = booking_rollups.booking_count + delta.booking_count, " +
+           "response_time_sum = booking_rollups.response_time_sum + delta.response_time_sum, " +
+           "response_time_count = booking_rollups.response_time_count + delta.response_time_count",
+           nativeQuery = true)
+    void applyDelta(@Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("status") String status,
+                    @Param("regionKey") String regionKey,
+                    @Param("countDelta") long countDelta,
+                    @Param("responseTimeDelta") long responseTimeDelta,
+                    @Param("responseCountDelta") long responseCountDelta);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_rollups", nativeQuery = true)
+    void deleteAllRollups();
+
+    // Region keys must match LocationService.regionKey: a 0.1 degree grid cell of the pickup point.
+    // Archived bookings are included so a rebuild keeps the full history
+    @Modifying
+    @Query(value = "INSERT INTO booking_rollups " +
+           "(bucket_start, status, region_key, booking_count, response_time_sum, response_time_count) " +
+           "SELECT DATE_FORMAT(b.requested_at, '%Y-%m-%d %H:00:00'), b.status, " +
+           "CONCAT(FLOOR(b.pickup_latitude * 10), ':', FLOOR(b.pickup_longitude * 10)), " +
+           "COUNT(*), COALESCE(SUM(TIMESTAMPDIFF(SECOND, b.requested_at, b.assigned_at)), 0), COUNT(b.assigned_at) " +
+           "FROM (SELECT requested_at, assigned_at, status, pickup_latitude, pickup_longitude FROM bookings " +
+           "UNION ALL SELECT requested_at, assigned_at, status, pickup_latitude, pickup_longitude FROM bookings_archive) b " +
+           "WHERE b.requested_at IS NOT NULL " +
+           "GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int backfillFromBookings();
+
+    @Query("SELECT COALESCE(SUM(r.bookingCount), 0) FROM BookingRollup r " +
+           "WHERE r.bucketStart >= :startDate AND r.status IN :statuses")
+    long sumBookingCount(@Param("startDate") LocalDateTime startDate,
+                         @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("SELECT SUM(r.responseTimeSum) * 1.0 / SUM(r.responseTimeCount) FROM BookingRollup r " +
+           "WHERE r.bucketStart >= :startDate AND r.status IN :statuses AND r.responseTimeCount > 0")
+    Double calculateAverageResponseTime(@Param("startDate") LocalDateTime startDate,
+                                        @Param("statuses") Collection<BookingStatus> statuses);
+}
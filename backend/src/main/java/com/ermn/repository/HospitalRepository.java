@@ -3,11 +3,37 @@ package com.ermn.repository;
 import com.ermn.model.entity.Hospital;
 import com.ermn.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HospitalRepository extends JpaRepository<Hospital, Long> {
     Optional<Hospital> findByAdmin(User admin);
+
+    @Query(value = "SELECT h.id FROM hospitals h " +
+                   "WHERE MBRContains(ST_GeomFromText(:boundingBox, 4326, 'axis-order=long-lat'), h.location) " +
+                   "AND ST_Distance_Sphere(h.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) <= :radiusMeters " +
+                   "ORDER BY ST_Distance_Sphere(h.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsWithinRadius(@Param("latitude") double latitude,
+                                   @Param("longitude") double longitude,
+                                   @Param("boundingBox") String boundingBox,
+                                   @Param("radiusMeters") double radiusMeters,
+                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT h.id FROM hospitals h " +
+                   "ORDER BY ST_Distance_Sphere(h.location, ST_SRID(POINT(:longitude, :latitude), 4326), 6371000) " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> findNearestIds(@Param("latitude") double latitude,
+                              @Param("longitude") double longitude,
+                              @Param("limit") int limit);
+
+    @Query(value = "SELECT h.id FROM hospitals h WHERE h.updated_at >= :since " +
+                   "UNION SELECT i.hospital_id FROM bed_inventory i WHERE i.last_updated >= :since", nativeQuery = true)
+    List<Long> findIdsChangedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,18 @@
+package com.ermn.repository;
+
+import com.ermn.model.entity.NotificationOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEvent, Long> {
+
+    // SKIP LOCKED lets several instances drain the outbox without waiting on each other's batches
+    @Query(value = "SELECT * FROM notification_outbox WHERE available_at <= :now " +
+                   "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutboxEvent> lockDue(LocalDateTime now, int limit);
+}
@@ -8,15 +8,26 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserOrderByCreatedAtDesc(User user);
+    List<Notification> findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(User user, LocalDateTime since);
     List<Notification> findByUserAndIsReadFalseOrderByCreatedAtDesc(User user);
     long countByUserAndIsReadFalse(User user);
     
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user = :user")
-    void markAllAsReadByUser(@Param("user") User user);
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.user = :user AND n.isRead = false AND n.createdAt >= :since")
+    void markAllAsReadByUser(@Param("user") User user, @Param("since") LocalDateTime since);
+
+    // One statement for any number of recipients; the users are read from idx_role_active
+    @Modifying
+    @Query(value = "INSERT INTO notifications (user_id, title, message, type, is_read, created_at) " +
+                   "SELECT u.id, :title, :message, :type, FALSE, :createdAt FROM users u " +
+                   "WHERE u.role = :role AND u.is_active = TRUE", nativeQuery = true)
+    int insertForRole(@Param("role") String role, @Param("title") String title, @Param("message") String message,
+                      @Param("type") String type, @Param("createdAt") LocalDateTime createdAt);
 }
@@ -0,0 +1,32 @@
+package com.ermn.repository;
+
+import com.ermn.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotatedAt = :now " +
+           "WHERE r.id = :id AND r.rotatedAt IS NULL AND r.revokedAt IS NULL AND r.expiresAt > :now")
+    int markRotated(UUID id, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(UUID familyId, LocalDateTime now);
+
+    @Query("SELECT r.familyId, MAX(r.expiresAt) FROM RefreshToken r " +
+           "WHERE r.revokedAt >= :since AND r.expiresAt > :now GROUP BY r.familyId")
+    List<Object[]> findRevokedFamiliesSince(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :cutoff")
+    int deleteExpiredBefore(LocalDateTime cutoff);
+}
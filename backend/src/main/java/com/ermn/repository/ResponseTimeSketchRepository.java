@@ -0,0 +1,26 @@
+package com.ermn.repository;
+
+import com.ermn.model.entity.ResponseTimeSketch;
+import com.ermn.model.entity.ResponseTimeSketchId;
+import com.ermn.model.enums.ResponseTimeMetric;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResponseTimeSketchRepository extends JpaRepository<ResponseTimeSketch, ResponseTimeSketchId> {
+    List<ResponseTimeSketch> findByMetricAndBucketStartGreaterThanEqual(ResponseTimeMetric metric,
+                                                                       LocalDateTime startDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ResponseTimeSketch s WHERE s.bucketStart = :bucketStart AND s.metric = :metric")
+    Optional<ResponseTimeSketch> findForUpdate(@Param("bucketStart") LocalDateTime bucketStart,
+                                               @Param("metric") ResponseTimeMetric metric);
+}
@@ -5,8 +5,11 @@ import com.ermn.model.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +19,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByRole(Role role);
     long countByIsActiveTrue();
     Page<User> findByRole(Role role, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findBatchAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.updatedAt > :since OR (u.updatedAt = :since AND u.id > :afterId) " +
+           "ORDER BY u.updatedAt, u.id")
+    List<User> findUpdatedBatchAfter(LocalDateTime since, Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id, u.email FROM User u WHERE u.updatedAt >= :since")
+    List<Object[]> findIdsAndEmailsUpdatedSince(LocalDateTime since);
 }
@@ -1,13 +1,16 @@
 package com.ermn.security;
 
+import com.ermn.model.entity.User;
+import com.ermn.service.UserCacheService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -19,11 +22,14 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserCacheService userCacheService;
+    private final RevokedTokenFamilies revokedTokenFamilies;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserCacheService userCacheService,
+                                   RevokedTokenFamilies revokedTokenFamilies) {
         this.tokenProvider = tokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.userCacheService = userCacheService;
+        this.revokedTokenFamilies = revokedTokenFamilies;
     }
 
     @Override
@@ -32,12 +38,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt, 
-                    userDetailsService.loadUserByUsername(tokenProvider.getUsernameFromToken(jwt)))) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+            UsernamePasswordAuthenticationToken authentication = StringUtils.hasText(jwt) ? authenticate(jwt) : null;
+
+            if (authentication != null) {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -49,6 +52,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The authentication for an access token, or null when it does not resolve to a user (see
+     * {@link #resolveUser}). Throws {@link io.jsonwebtoken.JwtException} when the token does not verify.
+     */
+    UsernamePasswordAuthenticationToken authenticate(String jwt) {
+        UserDetails userDetails = resolveUser(tokenProvider.parseToken(jwt));
+        return userDetails != null
+                ? new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())
+                : null;
+    }
+
+    /**
+     * Build the principal for a verified token, or null when its user no longer exists or has
+     * been deactivated, its family was revoked, or it is a refresh token (the only tokens with an id).
+     * The user is resolved once per request; services asking for it reuse it.
+     */
+    private UserDetails resolveUser(Claims claims) {
+        if (claims.getId() != null || revokedTokenFamilies.isRevoked(JwtTokenProvider.familyOf(claims))) {
+            return null;
+        }
+        User user = userCacheService.findByEmail(claims.getSubject())
+                .filter(User::getIsActive)
+                .orElse(null);
+        if (user == null) {
+            return null;
+        }
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        if (role == null) {
+            // Tokens issued before the role claim was added
+            role = user.getRole().name();
+        }
+        return org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_" + role))
+                .build();
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,60 +1,89 @@
 package com.ermn.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
-
-    @Value("${jwt.refresh-expiration}")
-    private long jwtRefreshExpiration;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public static final String ROLE_CLAIM = "role";
+    public static final String FAMILY_CLAIM = "fam";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final long jwtExpiration;
+    private final long jwtRefreshExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration}") long jwtExpiration,
+                            @Value("${jwt.refresh-expiration}") long jwtRefreshExpiration,
+                            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+                            @Value("${jwt.verified-cache.ttl:5m}") Duration verifiedCacheTtl) {
+        this.jwtExpiration = jwtExpiration;
+        this.jwtRefreshExpiration = jwtRefreshExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(verifiedCacheTtl)
+                .build();
     }
 
-    public String generateToken(Authentication authentication) {
+    public String generateToken(Authentication authentication, UUID familyId) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
                 .subject(userDetails.getUsername())
+                .claim(ROLE_CLAIM, roleOf(userDetails))
+                .claim(FAMILY_CLAIM, familyId.toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String generateRefreshToken(Authentication authentication) {
+    /**
+     * Issue a refresh token identified by {@code tokenId} (its {@code jti}) within a rotation family.
+     * The caller records the id so that the token can be rotated exactly once.
+     */
+    public String generateRefreshToken(Authentication authentication, UUID tokenId, UUID familyId, Date expiryDate) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtRefreshExpiration);
 
         return Jwts.builder()
+                .id(tokenId.toString())
                 .subject(userDetails.getUsername())
-                .issuedAt(now)
+                .claim(FAMILY_CLAIM, familyId.toString())
+                .issuedAt(new Date())
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    public Date refreshExpiryFromNow() {
+        return new Date(System.currentTimeMillis() + jwtRefreshExpiration);
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -64,25 +93,42 @@ public class JwtTokenProvider {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token));
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verify a token and return its claims, parsing and checking the signature only once per
+     * distinct token. Throws a {@link io.jsonwebtoken.JwtException} when the token is invalid or expired.
+     */
+    public Claims parseToken(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached == null) {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
+        }
+        if (cached.getExpiration() != null && cached.getExpiration().before(new Date())) {
+            verifiedTokens.invalidate(token);
+            throw new ExpiredJwtException(null, cached, "JWT expired");
+        }
+        return cached;
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * The rotation family a token belongs to, or {@code null} for tokens issued before families existed.
+     */
+    public static UUID familyOf(Claims claims) {
+        String family = claims.get(FAMILY_CLAIM, String.class);
+        return family != null ? UUID.fromString(family) : null;
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private String roleOf(UserDetails userDetails) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return name.substring(ROLE_PREFIX.length());
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,395 @@
+package com.ermn.security;
+
+import com.ermn.exception.TooManyRequestsException;
+import com.ermn.model.enums.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limits for the endpoints that write to the database on every call: auth,
+ * booking creation and ambulance location updates. Every request takes a permit from two buckets
+ * of its endpoint class: one for its subject and one for its client IP. The subject is the
+ * authenticated user; for anonymous auth calls it is the client IP together with the submitted
+ * email, so one client cannot lock others out of signing in from a shared address.
+ * <p>
+ * Subject limits are read from {@code ermn.rate-limit.<endpoint>} as {@code <permits>/<period>},
+ * optionally overridden per role with {@code ermn.rate-limit.<endpoint>.<ROLE>}; client IP limits
+ * from {@code ermn.rate-limit.<endpoint>.per-ip}. {@code unlimited} disables a limit. The client IP
+ * is the forwarded address when the request came through a trusted proxy
+ * ({@code server.forward-headers-strategy}).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (GCRA), updated
+ * with one compare-and-set. A bucket whose arrival time has passed is indistinguishable from a new
+ * one, so idle buckets are swept without losing state. Once the map holds {@code max-keys} buckets,
+ * new keys share a fixed set of striped buckets per endpoint class until the next sweep.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final int OVERFLOW_STRIPES = 64;
+    private static final int MAX_AUTH_BODY_BYTES = 4096;
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    enum Endpoint {
+        AUTH, BOOKING, LOCATION
+    }
+
+    record Limit(int permits, long intervalNanos, long burstNanos) {
+
+        static Limit parse(String spec) {
+            if (spec == null || spec.isBlank() || spec.trim().equalsIgnoreCase("unlimited")) {
+                return null;
+            }
+            String[] parts = spec.trim().split("/", 2);
+            int permits = Integer.parseInt(parts[0].trim());
+            long periodNanos = DurationStyle.detectAndParse(parts.length > 1 ? parts[1].trim() : "1s").toNanos();
+            long intervalNanos = Math.max(1, periodNanos / permits);
+            return new Limit(permits, intervalNanos, intervalNanos * permits);
+        }
+    }
+
+    private record Key(Endpoint endpoint, String subject) {
+    }
+
+    private record Permit(Limit limit, AtomicLong bucket, long result) {
+    }
+
+    private final boolean enabled;
+    private final int maxKeys;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final ObjectMapper objectMapper;
+    private final Map<Endpoint, Limit> defaultLimits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Limit> ipLimits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Map<Role, Limit>> roleLimits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong[]> overflowBuckets = new EnumMap<>(Endpoint.class);
+    private final ConcurrentHashMap<Key, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(Environment environment,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                           ObjectMapper objectMapper,
+                           @Value("${ermn.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${ermn.rate-limit.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.exceptionResolver = exceptionResolver;
+        this.objectMapper = objectMapper;
+        for (Endpoint endpoint : Endpoint.values()) {
+            String property = "ermn.rate-limit." + endpoint.name().toLowerCase(Locale.ROOT);
+            Limit defaultLimit = Limit.parse(environment.getProperty(property));
+            defaultLimits.put(endpoint, defaultLimit);
+            ipLimits.put(endpoint, Limit.parse(environment.getProperty(property + ".per-ip")));
+            Map<Role, Limit> limits = new EnumMap<>(Role.class);
+            for (Role role : Role.values()) {
+                String override = environment.getProperty(property + "." + role.name());
+                limits.put(role, override != null ? Limit.parse(override) : defaultLimit);
+            }
+            roleLimits.put(endpoint, limits);
+
+            AtomicLong[] stripes = new AtomicLong[OVERFLOW_STRIPES];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new AtomicLong(System.nanoTime());
+            }
+            overflowBuckets.put(endpoint, stripes);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || endpointOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Endpoint endpoint = endpointOf(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Role role = authentication != null ? roleOf(authentication) : null;
+        String clientIp = "ip:" + request.getRemoteAddr();
+
+        String subject = null;
+        Limit subjectLimit = null;
+        if (role != null) {
+            subject = "user:" + authentication.getName();
+            subjectLimit = roleLimits.get(endpoint).get(role);
+        } else if (endpoint == Endpoint.AUTH) {
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request);
+            request = buffered;
+            String email = submittedEmail(buffered);
+            if (email != null) {
+                subject = clientIp + " email:" + email;
+                subjectLimit = defaultLimits.get(endpoint);
+            }
+        }
+        Limit ipLimit = ipLimits.get(endpoint);
+        if (subject == null && ipLimit == null) {
+            // The client IP is all there is to key on, so the endpoint's own limit applies to it
+            ipLimit = defaultLimits.get(endpoint);
+        }
+
+        long now = System.nanoTime();
+        Permit subjectPermit = subjectLimit != null ? take(new Key(endpoint, subject), subjectLimit, now) : null;
+        Permit ipPermit = (subjectPermit == null || subjectPermit.result() >= 0) && ipLimit != null
+                ? take(new Key(endpoint, clientIp), ipLimit, now)
+                : null;
+        Permit tightest = tightest(subjectPermit, ipPermit);
+        if (tightest == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(tightest.limit().permits()));
+        if (tightest.result() >= 0) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(tightest.result()));
+            response.setHeader("X-RateLimit-Reset", String.valueOf(toSeconds(tightest.bucket().get() - now)));
+            filterChain.doFilter(request, response);
+        } else {
+            long retryAfterSeconds = Math.max(1, toSeconds(-tightest.result()));
+            response.setHeader("X-RateLimit-Remaining", "0");
+            response.setHeader("X-RateLimit-Reset", String.valueOf(retryAfterSeconds));
+            exceptionResolver.resolveException(request, response, null,
+                    new TooManyRequestsException("Too many requests, please retry later", retryAfterSeconds));
+        }
+    }
+
+    private Permit take(Key key, Limit limit, long now) {
+        AtomicLong bucket = bucketFor(key, now);
+        return new Permit(limit, bucket, acquire(bucket, limit, now));
+    }
+
+    // A rejection, or else the permit with the fewest left
+    private static Permit tightest(Permit first, Permit second) {
+        if (first == null || second == null) {
+            return first != null ? first : second;
+        }
+        return first.result() < 0 || first.result() <= second.result() && second.result() >= 0 ? first : second;
+    }
+
+    private String submittedEmail(BufferedBodyRequest request) {
+        byte[] body = request.completeBody();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || email.asText().isBlank()) {
+                return null;
+            }
+            String normalized = email.asText().trim().toLowerCase(Locale.ROOT);
+            return normalized.length() <= MAX_EMAIL_LENGTH ? normalized : normalized.substring(0, MAX_EMAIL_LENGTH);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Take one permit. Returns the permits left when allowed, or the negated nanoseconds until a
+     * permit becomes available when rejected.
+     */
+    static long acquire(AtomicLong bucket, Limit limit, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = (arrival - now > 0 ? arrival : now) + limit.intervalNanos();
+            long overshoot = next - now - limit.burstNanos();
+            if (overshoot > 0) {
+                return -overshoot;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return (limit.burstNanos() - (next - now)) / limit.intervalNanos();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ermn.rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private AtomicLong bucketFor(Key key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflowBuckets.get(key.endpoint())[(key.hashCode() & Integer.MAX_VALUE) % OVERFLOW_STRIPES];
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private static long toSeconds(long nanos) {
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999);
+    }
+
+    private static Endpoint endpointOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        if ("POST".equals(method)) {
+            if (uri.startsWith("/api/auth/")) {
+                return Endpoint.AUTH;
+            }
+            if (uri.equals("/api/bookings")) {
+                return Endpoint.BOOKING;
+            }
+        } else if ("PUT".equals(method) && uri.startsWith("/api/ambulances/") && uri.endsWith("/location")) {
+            return Endpoint.LOCATION;
+        }
+        return null;
+    }
+
+    /**
+     * Reads up to {@value #MAX_AUTH_BODY_BYTES} bytes of the body up front, so the submitted email
+     * can be keyed on, and replays them to the controller ahead of whatever was not read.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+        private final boolean complete;
+        private BufferedBodyInputStream inputStream;
+        private BufferedReader reader;
+
+        BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(MAX_AUTH_BODY_BYTES + 1);
+            this.complete = read.length <= MAX_AUTH_BODY_BYTES;
+            this.head = read;
+        }
+
+        byte[] completeBody() {
+            return complete ? head : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new BufferedBodyInputStream(head, complete ? null : super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                reader = new BufferedReader(new InputStreamReader(getInputStream(),
+                        encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+            }
+            return reader;
+        }
+
+        /**
+         * The buffered head followed by the rest of the request's own stream, or the head alone
+         * when it holds the whole body.
+         */
+        private final class BufferedBodyInputStream extends ServletInputStream {
+
+            private final ByteArrayInputStream buffered;
+            private final ServletInputStream rest;
+            private boolean finished;
+
+            BufferedBodyInputStream(byte[] head, ServletInputStream rest) {
+                this.buffered = new ByteArrayInputStream(head);
+                this.rest = rest;
+            }
+
+            @Override
+            public int read() throws IOException {
+                int read = buffered.read();
+                if (read == -1) {
+                    read = rest != null ? rest.read() : -1;
+                }
+                finished = read == -1;
+                return read;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                int read = buffered.read(buffer, offset, length);
+                if (read == -1) {
+                    read = rest != null ? rest.read(buffer, offset, length) : -1;
+                }
+                finished = read == -1;
+                return read;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return buffered.available() > 0 || rest == null || rest.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                if (rest != null) {
+                    // The container calls back as the rest arrives; reads still return the head first
+                    rest.setReadListener(listener);
+                    return;
+                }
+                if (!isAsyncStarted()) {
+                    throw new IllegalStateException("Non-blocking reads require an asynchronous request");
+                }
+                try {
+                    listener.onDataAvailable();
+                    listener.onAllDataRead();
+                } catch (IOException | RuntimeException ex) {
+                    listener.onError(ex);
+                }
+            }
+        }
+    }
+
+    private static Role roleOf(Authentication authentication) {
+        if (!authentication.isAuthenticated()) {
+            return null;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                try {
+                    return Role.valueOf(name.substring(ROLE_PREFIX.length()));
+                } catch (IllegalArgumentException ignored) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
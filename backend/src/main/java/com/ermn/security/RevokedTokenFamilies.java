@@ -0,0 +1,161 @@
+package com.ermn.security;
+
+import com.ermn.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory set of revoked token families, checked on every authenticated request. A Bloom
+ * filter answers the common "not revoked" case with a few bit reads; only filter hits consult the
+ * exact map. Entries are kept until the family's last refresh token expires, after which no token
+ * of the family can verify anyway. Revocations made by other instances are picked up by a
+ * periodic sync from {@code refresh_tokens}.
+ */
+@Component
+public class RevokedTokenFamilies {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenFamilies.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long syncOverlapMillis;
+    private final Map<UUID, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private LocalDateTime syncedUpTo = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public RevokedTokenFamilies(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry,
+                                @Value("${ermn.refresh-tokens.revocation-filter.expected-entries:100000}") int expectedEntries,
+                                @Value("${ermn.refresh-tokens.revocation-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${ermn.refresh-tokens.revocation-sync-interval-ms:30000}") long syncIntervalMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlapMillis = 2 * syncIntervalMillis;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        Gauge.builder("ermn.refresh.revoked.families", revoked, Map::size)
+                .description("Revoked token families held in memory")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID familyId) {
+        return familyId != null && filter.mightContain(familyId) && revoked.containsKey(familyId);
+    }
+
+    /**
+     * Mark a family as revoked on this instance until {@code expiresAt}.
+     */
+    public void revoke(UUID familyId, LocalDateTime expiresAt) {
+        revoked.merge(familyId, expiresAt, (current, added) -> current.isAfter(added) ? current : added);
+        filter.put(familyId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+    }
+
+    /**
+     * Pull revocations recorded since the last sync and drop expired entries. Re-reading an
+     * overlapping window is harmless and covers transactions that committed late.
+     */
+    @Scheduled(initialDelayString = "${ermn.refresh-tokens.revocation-sync-interval-ms:30000}",
+               fixedDelayString = "${ermn.refresh-tokens.revocation-sync-interval-ms:30000}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            syncNow();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncNow() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Object[] row : refreshTokenRepository.findRevokedFamiliesSince(syncedUpTo, now)) {
+                revoke((UUID) row[0], (LocalDateTime) row[1]);
+            }
+            syncedUpTo = now.minusNanos(syncOverlapMillis * 1_000_000);
+        } catch (RuntimeException ex) {
+            log.warn("Could not sync revoked token families: {}", ex.getMessage());
+        }
+
+        boolean purged = revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        if (purged || revoked.size() > filter.capacity) {
+            rebuildFilter();
+        }
+    }
+
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // Families revoked while rebuilding may have gone into the old filter only
+        revoked.keySet().forEach(rebuilt::put);
+    }
+
+    private static final class BloomFilter {
+
+        private final int capacity;
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        void put(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long mix(long value) {
+            value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+            value = (value ^ (value >>> 33)) * 0xc4ceb3e9185a7b2bL;
+            return value ^ (value >>> 33);
+        }
+    }
+}
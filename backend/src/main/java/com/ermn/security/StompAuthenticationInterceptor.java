@@ -0,0 +1,89 @@
+package com.ermn.security;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP sessions with the access token in the CONNECT frame's {@code Authorization}
+ * header, so that messages sent to the user's queues ({@code /user/queue/...}) reach only their
+ * sessions. A session connecting without a token stays anonymous and can only follow public
+ * topics; one whose token does not resolve to an active user is refused.
+ * <p>
+ * Subscriptions to {@code /topic/notifications/role/<role>} are only accepted from users with that
+ * role. Other notification topics, the broker's queues (which user destinations resolve to) and
+ * wildcard destinations cannot be subscribed to directly.
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String NOTIFICATION_TOPICS = "/topic/notifications/";
+    private static final String ROLE_NOTIFICATION_TOPICS = NOTIFICATION_TOPICS + "role/";
+    private static final String QUEUES = "/queue/";
+    private static final Pattern WILDCARDS = Pattern.compile("[*?{}]");
+
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    public StompAuthenticationInterceptor(JwtAuthenticationFilter jwtAuthenticationFilter) {
+        this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String bearerToken = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+            if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+                accessor.setUser(authenticate(bearerToken.substring(7)));
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())
+                && !maySubscribe(accessor.getUser(), accessor.getDestination())) {
+            throw new AccessDeniedException("Not allowed to subscribe to " + accessor.getDestination());
+        }
+        return message;
+    }
+
+    private static boolean maySubscribe(Principal user, String destination) {
+        // The simple broker matches subscriptions as patterns, so /topic/** would include the role topics
+        if (destination == null || destination.startsWith(QUEUES) || WILDCARDS.matcher(destination).find()) {
+            return false;
+        }
+        if (!destination.startsWith(NOTIFICATION_TOPICS)) {
+            return true;
+        }
+        if (!destination.startsWith(ROLE_NOTIFICATION_TOPICS) || !(user instanceof Authentication authentication)) {
+            return false;
+        }
+        String authority = "ROLE_" + destination.substring(ROLE_NOTIFICATION_TOPICS.length());
+        return authentication.getAuthorities().stream()
+                .anyMatch(granted -> authority.equals(granted.getAuthority()));
+    }
+
+    private Authentication authenticate(String jwt) {
+        Authentication authentication;
+        try {
+            authentication = jwtAuthenticationFilter.authenticate(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new AccessDeniedException("Invalid access token");
+        }
+        if (authentication == null) {
+            throw new AccessDeniedException("Invalid access token");
+        }
+        return authentication;
+    }
+}
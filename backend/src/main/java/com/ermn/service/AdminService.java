@@ -8,16 +8,19 @@ import com.ermn.model.dto.response.AmbulanceResponse;
 import com.ermn.model.dto.response.BloodBankResponse;
 import com.ermn.model.dto.response.HospitalResponse;
 import com.ermn.model.dto.response.UserResponse;
+import com.ermn.model.dto.response.UserSearchResponse;
 import com.ermn.model.entity.BloodBank;
 import com.ermn.model.entity.Hospital;
 import com.ermn.model.entity.User;
 import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.ResponseTimeMetric;
 import com.ermn.model.enums.Role;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.AmbulanceRepository;
 import com.ermn.repository.BedInventoryRepository;
 import com.ermn.repository.BloodBankRepository;
 import com.ermn.repository.BloodInventoryRepository;
-import com.ermn.repository.BookingRepository;
+import com.ermn.repository.BookingRollupRepository;
 import com.ermn.repository.HospitalRepository;
 import com.ermn.repository.UserRepository;
 import org.springframework.data.domain.Page;
@@ -26,13 +29,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
 
-    private final BookingRepository bookingRepository;
+    private static final Set<BookingStatus> COUNTED_STATUSES = EnumSet.of(BookingStatus.REQUESTED,
+            BookingStatus.ASSIGNED, BookingStatus.EN_ROUTE, BookingStatus.ARRIVED, BookingStatus.COMPLETED);
+    private static final Set<BookingStatus> RESPONDED_STATUSES = EnumSet.of(BookingStatus.ASSIGNED,
+            BookingStatus.EN_ROUTE, BookingStatus.ARRIVED, BookingStatus.COMPLETED);
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private final BookingRollupRepository bookingRollupRepository;
     private final AmbulanceRepository ambulanceRepository;
     private final BedInventoryRepository bedInventoryRepository;
     private final BloodInventoryRepository bloodInventoryRepository;
@@ -41,16 +55,24 @@ public class AdminService {
     private final BloodBankRepository bloodBankRepository;
     private final HospitalService hospitalService;
     private final BloodBankService bloodBankService;
+    private final BookingRollupService bookingRollupService;
+    private final ResponseTimeSketchService responseTimeSketchService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserCacheService userCacheService;
 
-    public AdminService(BookingRepository bookingRepository, AmbulanceRepository ambulanceRepository,
+    public AdminService(BookingRollupRepository bookingRollupRepository, AmbulanceRepository ambulanceRepository,
                       BedInventoryRepository bedInventoryRepository,
                       BloodInventoryRepository bloodInventoryRepository,
                       UserRepository userRepository,
                       HospitalRepository hospitalRepository,
                       BloodBankRepository bloodBankRepository,
                       HospitalService hospitalService,
-                      BloodBankService bloodBankService) {
-        this.bookingRepository = bookingRepository;
+                      BloodBankService bloodBankService,
+                      BookingRollupService bookingRollupService,
+                      ResponseTimeSketchService responseTimeSketchService,
+                      UserSearchIndex userSearchIndex,
+                      UserCacheService userCacheService) {
+        this.bookingRollupRepository = bookingRollupRepository;
         this.ambulanceRepository = ambulanceRepository;
         this.bedInventoryRepository = bedInventoryRepository;
         this.bloodInventoryRepository = bloodInventoryRepository;
@@ -59,39 +81,27 @@ public class AdminService {
         this.bloodBankRepository = bloodBankRepository;
         this.hospitalService = hospitalService;
         this.bloodBankService = bloodBankService;
+        this.bookingRollupService = bookingRollupService;
+        this.responseTimeSketchService = responseTimeSketchService;
+        this.userSearchIndex = userSearchIndex;
+        this.userCacheService = userCacheService;
     }
 
+    @Transactional(readOnly = true)
     public AdminDashboardResponse getDashboardMetrics() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
         LocalDateTime weekStart = todayStart.minusDays(7);
         LocalDateTime monthStart = todayStart.minusMonths(1);
 
-        long bookingsToday = bookingRepository.countByStatusAndRequestedAtAfter(
-                BookingStatus.REQUESTED, todayStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ASSIGNED, todayStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.EN_ROUTE, todayStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ARRIVED, todayStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.COMPLETED, todayStart);
-
-        long bookingsWeek = bookingRepository.countByStatusAndRequestedAtAfter(
-                BookingStatus.REQUESTED, weekStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ASSIGNED, weekStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.EN_ROUTE, weekStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ARRIVED, weekStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.COMPLETED, weekStart);
-
-        long bookingsMonth = bookingRepository.countByStatusAndRequestedAtAfter(
-                BookingStatus.REQUESTED, monthStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ASSIGNED, monthStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.EN_ROUTE, monthStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.ARRIVED, monthStart) +
-                bookingRepository.countByStatusAndRequestedAtAfter(BookingStatus.COMPLETED, monthStart);
+        long bookingsToday = bookingRollupRepository.sumBookingCount(todayStart, COUNTED_STATUSES);
+        long bookingsWeek = bookingRollupRepository.sumBookingCount(weekStart, COUNTED_STATUSES);
+        long bookingsMonth = bookingRollupRepository.sumBookingCount(monthStart, COUNTED_STATUSES);
 
         long activeAmbulances = ambulanceRepository.countByIsAvailableTrueAndIsApprovedTrue();
         long pendingApprovals = ambulanceRepository.countByIsApprovedFalse();
 
-        Double avgResponseTime = bookingRepository.calculateAverageResponseTime(monthStart);
+        Double avgResponseTime = bookingRollupRepository.calculateAverageResponseTime(monthStart, RESPONDED_STATUSES);
         if (avgResponseTime == null) avgResponseTime = 0.0;
 
         Long totalCapacity = bedInventoryRepository.getTotalCapacity();
@@ -109,12 +119,20 @@ public class AdminService {
                 .totalBookingsMonth(bookingsMonth)
                 .activeAmbulances(activeAmbulances)
                 .averageResponseTimeSeconds(avgResponseTime)
+                .dispatchTimePercentiles(responseTimeSketchService.getPercentiles(ResponseTimeMetric.DISPATCH, monthStart))
+                .arrivalTimePercentiles(responseTimeSketchService.getPercentiles(ResponseTimeMetric.ARRIVAL, monthStart))
+                .tripTimePercentiles(responseTimeSketchService.getPercentiles(ResponseTimeMetric.TRIP, monthStart))
                 .bedOccupancyPercentage(bedOccupancy)
                 .bloodShortageAlerts(bloodShortages)
                 .pendingAmbulanceApprovals(pendingApprovals)
                 .build();
     }
 
+    public int rebuildBookingRollups() {
+        return bookingRollupService.backfill();
+    }
+
+    @Transactional(readOnly = true)
     public List<AmbulanceResponse> getPendingAmbulances() {
         return ambulanceRepository.findAll().stream()
                 .filter(ambulance -> !ambulance.getIsApproved())
@@ -149,6 +167,7 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Ambulance not found"));
     }
 
+    @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable, String roleFilter) {
         if (roleFilter != null && !roleFilter.isBlank()) {
             Role role;
@@ -165,6 +184,26 @@ public class AdminService {
                 .map(this::mapToUserResponse);
     }
 
+    public UserSearchResponse searchUsers(String query, Role role, Boolean isActive, Long after,
+                                          int limit, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        UserSearchIndex.SearchResult result = userSearchIndex.search(query, role, isActive, after, pageSize, includeTotal);
+
+        Map<Long, User> usersById = userRepository.findAllById(result.userIds()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<UserResponse> users = result.userIds().stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToUserResponse)
+                .collect(Collectors.toList());
+
+        return UserSearchResponse.builder()
+                .users(users)
+                .nextCursor(result.nextCursor())
+                .total(result.total())
+                .build();
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
                 .id(user.getId())
@@ -184,6 +223,8 @@ public class AdminService {
 
         user.setIsActive(isActive);
         user = userRepository.save(user);
+        userCacheService.evict(user);
+        userSearchIndex.index(user);
 
         return mapToUserResponse(user);
     }
@@ -201,12 +242,13 @@ public class AdminService {
         Hospital hospital = Hospital.builder()
                 .name(request.getName())
                 .address(request.getAddress())
-                .latitude(request.getLatitude())
-                .longitude(request.getLongitude())
+                .latitude(Coordinate.ofDecimal(request.getLatitude()))
+                .longitude(Coordinate.ofDecimal(request.getLongitude()))
                 .phone(request.getPhone())
                 .admin(admin)
                 .build();
         hospital = hospitalRepository.save(hospital);
+        hospitalService.evictHospital(hospital.getId());
         return hospitalService.getHospital(hospital.getId(), null, null);
     }
 
@@ -223,12 +265,13 @@ public class AdminService {
         BloodBank bloodBank = BloodBank.builder()
                 .name(request.getName())
                 .address(request.getAddress())
-                .latitude(request.getLatitude())
-                .longitude(request.getLongitude())
+                .latitude(Coordinate.ofDecimal(request.getLatitude()))
+                .longitude(Coordinate.ofDecimal(request.getLongitude()))
                 .phone(request.getPhone())
                 .admin(admin)
                 .build();
         bloodBank = bloodBankRepository.save(bloodBank);
+        bloodBankService.evictBloodBank(bloodBank.getId());
         return bloodBankService.getMyBloodBank(admin.getEmail());
     }
 }
@@ -5,28 +5,47 @@ import com.ermn.model.dto.request.LocationUpdateRequest;
 import com.ermn.model.dto.response.AmbulanceResponse;
 import com.ermn.model.entity.Ambulance;
 import com.ermn.model.entity.User;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.AmbulanceRepository;
-import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class AmbulanceService {
 
     private final AmbulanceRepository ambulanceRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final Map<LocationSource, Counter> locationUpdates = new EnumMap<>(LocationSource.class);
+    private final Timer previousLocationAge;
 
-    public AmbulanceService(AmbulanceRepository ambulanceRepository, UserRepository userRepository) {
+    public AmbulanceService(AmbulanceRepository ambulanceRepository, UserCacheService userCacheService,
+                            MeterRegistry meterRegistry) {
         this.ambulanceRepository = ambulanceRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        for (LocationSource source : LocationSource.values()) {
+            locationUpdates.put(source, Counter.builder("ermn.location.updates")
+                    .description("Ambulance location fixes received")
+                    .tag("source", source.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.previousLocationAge = Timer.builder("ermn.location.age")
+                .description("Age of an ambulance's position when a new fix replaces it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public AmbulanceResponse getAmbulanceByDriver(String userEmail) {
-        User driver = userRepository.findByEmail(userEmail)
+        User driver = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Ambulance ambulance = ambulanceRepository.findByDriver(driver)
@@ -37,7 +56,7 @@ public class AmbulanceService {
 
     @Transactional
     public AmbulanceResponse toggleAvailability(Long ambulanceId, String userEmail) {
-        User driver = userRepository.findByEmail(userEmail)
+        User driver = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Ambulance ambulance = ambulanceRepository.findById(ambulanceId)
@@ -55,7 +74,7 @@ public class AmbulanceService {
 
     @Transactional
     public AmbulanceResponse updateLocation(Long ambulanceId, LocationUpdateRequest request, String userEmail) {
-        User driver = userRepository.findByEmail(userEmail)
+        User driver = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Ambulance ambulance = ambulanceRepository.findById(ambulanceId)
@@ -65,14 +84,29 @@ public class AmbulanceService {
             throw new CustomException("Unauthorized to update location");
         }
 
-        ambulance.setCurrentLatitude(request.getLatitude());
-        ambulance.setCurrentLongitude(request.getLongitude());
-        ambulance.setLastUpdatedLocation(LocalDateTime.now());
-        ambulance = ambulanceRepository.save(ambulance);
+        ambulance = moveTo(ambulance, Coordinate.ofDecimal(request.getLatitude()),
+                Coordinate.ofDecimal(request.getLongitude()), LocationSource.REST);
 
         return mapToAmbulanceResponse(ambulance);
     }
 
+    /**
+     * Store a new position fix for an ambulance.
+     */
+    public Ambulance moveTo(Ambulance ambulance, Coordinate latitude, Coordinate longitude, LocationSource source) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime previous = ambulance.getLastUpdatedLocation();
+        if (previous != null) {
+            previousLocationAge.record(Duration.between(previous, now));
+        }
+        locationUpdates.get(source).increment();
+
+        ambulance.setCurrentLatitude(latitude);
+        ambulance.setCurrentLongitude(longitude);
+        ambulance.setLastUpdatedLocation(now);
+        return ambulanceRepository.save(ambulance);
+    }
+
     public List<AmbulanceResponse> getAllAvailableAmbulances() {
         return ambulanceRepository.findAvailableApprovedAmbulancesWithLocation().stream()
                 .map(this::mapToAmbulanceResponse)
@@ -108,4 +142,8 @@ public class AmbulanceService {
                 .isApproved(ambulance.getIsApproved())
                 .build();
     }
+
+    public enum LocationSource {
+        REST, WEBSOCKET
+    }
 }
@@ -9,14 +9,18 @@ import com.ermn.model.dto.response.UserResponse;
 import com.ermn.model.entity.User;
 import com.ermn.repository.UserRepository;
 import com.ermn.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 @Service
 public class AuthService {
 
@@ -24,16 +28,21 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserCacheService userCacheService;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder,
                       AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider,
-                      UserDetailsService userDetailsService) {
+                      UserSearchIndex userSearchIndex, UserCacheService userCacheService,
+                      RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.userSearchIndex = userSearchIndex;
+        this.userCacheService = userCacheService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @Transactional
@@ -52,66 +61,82 @@ public class AuthService {
                 .build();
 
         user = userRepository.save(user);
+        userSearchIndex.index(user);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 user.getEmail(), request.getPassword());
         authentication = authenticationManager.authenticate(authentication);
 
-        String accessToken = tokenProvider.generateToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication);
-
-        return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .user(mapToUserResponse(user))
-                .build();
+        return issueTokens(authentication, user, UUID.randomUUID());
     }
 
     public AuthResponse login(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = userCacheService.findByEmail(request.getEmail())
                 .orElseThrow(() -> new CustomException("User not found"));
 
-        String accessToken = tokenProvider.generateToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication);
-
-        return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .user(mapToUserResponse(user))
-                .build();
+        return issueTokens(authentication, user, UUID.randomUUID());
     }
 
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        String email;
-        try {
-            email = tokenProvider.getUsernameFromToken(request.getRefreshToken());
-        } catch (Exception e) {
-            throw new CustomException("Invalid or expired refresh token");
+        Claims claims = parseRefreshToken(request.getRefreshToken());
+        UUID familyId = JwtTokenProvider.familyOf(claims);
+        if (claims.getId() == null || familyId == null) {
+            // Issued before rotation was introduced, or an access token
+            throw new CustomException("Refresh token is no longer accepted, please sign in again");
         }
-        User user = userRepository.findByEmail(email)
+        User user = userCacheService.findByEmail(claims.getSubject())
                 .orElseThrow(() -> new CustomException("User not found"));
         if (!user.getIsActive()) {
             throw new CustomException("User account is deactivated");
         }
-        var userDetails = userDetailsService.loadUserByUsername(user.getEmail());
+
+        refreshTokenService.rotate(UUID.fromString(claims.getId()), familyId);
+
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+                .build();
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
-        String accessToken = tokenProvider.generateToken(authentication);
-        String newRefreshToken = tokenProvider.generateRefreshToken(authentication);
+        return issueTokens(authentication, user, familyId);
+    }
+
+    /**
+     * Revoke every token issued from the same login as the given refresh token.
+     */
+    public void logout(RefreshTokenRequest request) {
+        UUID familyId = JwtTokenProvider.familyOf(parseRefreshToken(request.getRefreshToken()));
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId);
+        }
+    }
+
+    public UserResponse getCurrentUser(String email) {
+        User user = userCacheService.findByEmail(email)
+                .orElseThrow(() -> new CustomException("User not found"));
+        return mapToUserResponse(user);
+    }
+
+    private AuthResponse issueTokens(Authentication authentication, User user, UUID familyId) {
+        String accessToken = tokenProvider.generateToken(authentication, familyId);
+        String refreshToken = refreshTokenService.issue(authentication, user, familyId);
+
         return AuthResponse.builder()
                 .accessToken(accessToken)
-                .refreshToken(newRefreshToken)
+                .refreshToken(refreshToken)
                 .user(mapToUserResponse(user))
                 .build();
     }
 
-    public UserResponse getCurrentUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new CustomException("User not found"));
-        return mapToUserResponse(user);
+    private Claims parseRefreshToken(String refreshToken) {
+        try {
+            return tokenProvider.parseToken(refreshToken);
+        } catch (Exception e) {
+            throw new CustomException("Invalid or expired refresh token");
+        }
     }
 
     private UserResponse mapToUserResponse(User user) {
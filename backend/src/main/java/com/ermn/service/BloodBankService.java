@@ -8,39 +8,70 @@ import com.ermn.model.entity.BloodBank;
 import com.ermn.model.entity.BloodInventory;
 import com.ermn.model.entity.User;
 import com.ermn.model.enums.BloodGroup;
+import com.ermn.model.enums.NotificationType;
+import com.ermn.model.enums.Role;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.BloodBankRepository;
 import com.ermn.repository.BloodInventoryRepository;
-import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class BloodBankService {
 
+    private static final int MAX_NEARBY_RESULTS = 100;
+
     private final BloodBankRepository bloodBankRepository;
     private final BloodInventoryRepository bloodInventoryRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final LocationService locationService;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final ReferenceCache<CachedBloodBank> bloodBankCache;
+    private final Counter bloodInventoryUpdates;
 
     public BloodBankService(BloodBankRepository bloodBankRepository,
                            BloodInventoryRepository bloodInventoryRepository,
-                           UserRepository userRepository, LocationService locationService,
-                           NotificationService notificationService) {
+                           UserCacheService userCacheService, LocationService locationService,
+                           NotificationOutboxService notificationOutboxService,
+                           MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                           @Value("${ermn.reference-cache.max-size:10000}") long maxCacheSize,
+                           @Value("${ermn.reference-cache.ttl:10m}") Duration cacheTtl,
+                           @Value("${ermn.reference-cache.invalidation-overlap:10s}") Duration invalidationOverlap) {
         this.bloodBankRepository = bloodBankRepository;
         this.bloodInventoryRepository = bloodInventoryRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.locationService = locationService;
-        this.notificationService = notificationService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.bloodBankCache = new ReferenceCache<>("bloodBanks", maxCacheSize, cacheTtl, invalidationOverlap,
+                meterRegistry, transactionManager,
+                ids -> loadBloodBanks(bloodBankRepository.findAllById(ids)),
+                () -> loadBloodBanks(bloodBankRepository.findAll()),
+                bloodBankRepository::findIdsChangedSince);
+        this.bloodInventoryUpdates = Counter.builder("ermn.inventory.updates")
+                .description("Inventory updates by hospital and blood bank admins")
+                .tag("type", "blood")
+                .register(meterRegistry);
     }
 
-    public List<BloodBankResponse> getAllBloodBanks(BigDecimal userLat, BigDecimal userLon) {
-        return bloodBankRepository.findAll().stream()
-                .map(bloodBank -> mapToBloodBankResponse(bloodBank, userLat, userLon))
+    public List<BloodBankResponse> getAllBloodBanks(Coordinate userLat, Coordinate userLon, Double radiusKm, Integer limit) {
+        if (userLat != null && userLon != null && (radiusKm != null || limit != null)) {
+            return getNearbyBloodBanks(userLat, userLon, radiusKm, limit);
+        }
+        return bloodBankCache.getAll().stream()
+                .map(cached -> withDistance(cached.response(), userLat, userLon))
                 .sorted((b1, b2) -> {
                     if (b1.getDistanceKm() == null) return 1;
                     if (b2.getDistanceKm() == null) return -1;
@@ -49,11 +80,29 @@ public class BloodBankService {
                 .collect(Collectors.toList());
     }
 
-    public List<BloodBankResponse> searchBloodBanks(BloodGroup bloodGroup, BigDecimal userLat, BigDecimal userLon) {
-        List<BloodInventory> inventories = bloodInventoryRepository.findByBloodGroup(bloodGroup);
-        return inventories.stream()
-                .map(inventory -> mapToBloodBankResponse(inventory.getBloodBank(), userLat, userLon))
-                .distinct()
+    /**
+     * Nearest first, within {@code radiusKm} if given, at most {@code limit} results. Matching ids
+     * come from the spatial index; the rest of each response from the cache.
+     */
+    private List<BloodBankResponse> getNearbyBloodBanks(Coordinate userLat, Coordinate userLon, Double radiusKm, Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : MAX_NEARBY_RESULTS, MAX_NEARBY_RESULTS));
+        List<Long> ids = radiusKm != null
+                ? bloodBankRepository.findIdsWithinRadius(userLat.degrees(), userLon.degrees(),
+                        locationService.boundingBox(userLat, userLon, radiusKm), radiusKm * 1000, pageSize)
+                : bloodBankRepository.findNearestIds(userLat.degrees(), userLon.degrees(), pageSize);
+        return ids.stream()
+                .map(bloodBankCache::get)
+                .flatMap(Optional::stream)
+                .map(cached -> withDistance(cached.response(), userLat, userLon))
+                .collect(Collectors.toList());
+    }
+
+    public List<BloodBankResponse> searchBloodBanks(BloodGroup bloodGroup, Coordinate userLat, Coordinate userLon) {
+        return bloodBankCache.getAll().stream()
+                .map(CachedBloodBank::response)
+                .filter(response -> response.getInventories().stream()
+                        .anyMatch(inventory -> inventory.getBloodGroup() == bloodGroup && inventory.getQuantityUnits() > 0))
+                .map(response -> withDistance(response, userLat, userLon))
                 .sorted((b1, b2) -> {
                     if (b1.getDistanceKm() == null) return 1;
                     if (b2.getDistanceKm() == null) return -1;
@@ -63,24 +112,40 @@ public class BloodBankService {
     }
 
     public BloodBankResponse getMyBloodBank(String userEmail) {
-        User admin = userRepository.findByEmail(userEmail)
+        User admin = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
-        BloodBank bloodBank = bloodBankRepository.findByAdmin(admin)
+        return bloodBankCache.getAll().stream()
+                .filter(cached -> admin.getId().equals(cached.adminId()))
+                .map(CachedBloodBank::response)
+                .findFirst()
                 .orElseThrow(() -> new CustomException("No blood bank assigned to your account"));
-        return mapToBloodBankResponse(bloodBank, null, null);
     }
 
     public List<BloodInventoryResponse> getBloodInventory(Long bloodBankId) {
-        BloodBank bloodBank = bloodBankRepository.findById(bloodBankId)
+        CachedBloodBank cached = bloodBankCache.get(bloodBankId)
                 .orElseThrow(() -> new CustomException("Blood bank not found"));
-        return bloodInventoryRepository.findByBloodBank(bloodBank).stream()
-                .map(this::mapToBloodInventoryResponse)
-                .collect(Collectors.toList());
+        return cached.response().getInventories();
+    }
+
+    /**
+     * Drop a blood bank's cached snapshot after the blood bank or its inventory changed.
+     */
+    public void evictBloodBank(Long bloodBankId) {
+        bloodBankCache.evict(bloodBankId);
+    }
+
+    /**
+     * Drop cached blood banks that were changed through other instances.
+     */
+    @Scheduled(initialDelayString = "${ermn.reference-cache.invalidation-sync-interval-ms:1000}",
+               fixedDelayString = "${ermn.reference-cache.invalidation-sync-interval-ms:1000}")
+    public void evictChangedBloodBanks() {
+        bloodBankCache.evictChanged();
     }
 
     @Transactional
     public BloodInventoryResponse updateBloodInventory(Long bloodBankId, BloodInventoryUpdateRequest request, String userEmail) {
-        User admin = userRepository.findByEmail(userEmail)
+        User admin = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         BloodBank bloodBank = bloodBankRepository.findById(bloodBankId)
@@ -107,32 +172,53 @@ public class BloodBankService {
         boolean isShortage = inventory.getQuantityUnits() < inventory.getMinimumThreshold();
         inventory.setIsEmergencyShortage(isShortage);
         inventory = bloodInventoryRepository.save(inventory);
+        bloodInventoryUpdates.increment();
+        bloodBankCache.evict(bloodBankId);
 
-        // Notify super admin if emergency shortage
+        // Notify super admins if emergency shortage
         if (isShortage) {
-            notificationService.createBloodShortageNotification(bloodBank, request.getBloodGroup());
+            notificationOutboxService.publishToRole(Role.SUPER_ADMIN, "Blood Shortage Alert",
+                    String.format("Emergency blood shortage: %s at %s has less than threshold units",
+                            request.getBloodGroup(), bloodBank.getName()),
+                    NotificationType.BLOOD_SHORTAGE);
         }
 
         return mapToBloodInventoryResponse(inventory);
     }
 
+    @Transactional(readOnly = true)
     public List<BloodInventoryResponse> getEmergencyShortages() {
         return bloodInventoryRepository.findByIsEmergencyShortageTrue().stream()
                 .map(this::mapToBloodInventoryResponse)
                 .collect(Collectors.toList());
     }
 
-    private BloodBankResponse mapToBloodBankResponse(BloodBank bloodBank, BigDecimal userLat, BigDecimal userLon) {
-        Double distance = null;
-        if (userLat != null && userLon != null) {
-            distance = locationService.calculateDistance(
-                    userLat, userLon, bloodBank.getLatitude(), bloodBank.getLongitude());
+    private BloodBankResponse withDistance(BloodBankResponse response, Coordinate userLat, Coordinate userLon) {
+        if (userLat == null || userLon == null) {
+            return response;
+        }
+        return response.toBuilder()
+                .distanceKm(locationService.calculateDistance(
+                        userLat, userLon, response.getLatitude(), response.getLongitude()))
+                .build();
+    }
+
+    private Map<Long, CachedBloodBank> loadBloodBanks(Collection<BloodBank> bloodBanks) {
+        if (bloodBanks.isEmpty()) {
+            return Map.of();
         }
+        Map<Long, List<BloodInventory>> inventories = bloodInventoryRepository.findByBloodBankIn(bloodBanks).stream()
+                .collect(Collectors.groupingBy(inventory -> inventory.getBloodBank().getId()));
+        return bloodBanks.stream().collect(Collectors.toMap(BloodBank::getId,
+                bloodBank -> new CachedBloodBank(bloodBank.getAdmin().getId(),
+                        mapToBloodBankResponse(bloodBank, inventories.getOrDefault(bloodBank.getId(), List.of()))),
+                (a, b) -> a, LinkedHashMap::new));
+    }
 
-        List<BloodInventoryResponse> inventories = bloodInventoryRepository
-                .findByBloodBank(bloodBank).stream()
+    public BloodBankResponse mapToBloodBankResponse(BloodBank bloodBank, List<BloodInventory> bloodInventories) {
+        List<BloodInventoryResponse> inventories = bloodInventories.stream()
                 .map(this::mapToBloodInventoryResponse)
-                .collect(Collectors.toList());
+                .toList();
 
         return BloodBankResponse.builder()
                 .id(bloodBank.getId())
@@ -141,7 +227,6 @@ public class BloodBankService {
                 .latitude(bloodBank.getLatitude())
                 .longitude(bloodBank.getLongitude())
                 .phone(bloodBank.getPhone())
-                .distanceKm(distance)
                 .inventories(inventories)
                 .createdAt(bloodBank.getCreatedAt())
                 .build();
@@ -157,4 +242,7 @@ public class BloodBankService {
                 .lastUpdated(inventory.getLastUpdated())
                 .build();
     }
+
+    private record CachedBloodBank(Long adminId, BloodBankResponse response) {
+    }
 }
@@ -0,0 +1,136 @@
+package com.ermn.service;
+
+import com.ermn.model.dto.response.BookingExportRow;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.ExportFormat;
+import com.ermn.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes booking histories for audits row by row from a forward-only cursor, so heap use
+ * does not depend on how many bookings are exported.
+ */
+@Service
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    // The TIMESTAMP range (1970-01-01 00:00:01 to 2038-01-19 03:14:07 UTC) less a day on each side
+    // for session time zones. A bound outside it cannot be converted to a TIMESTAMP, which keeps
+    // MySQL from pruning partitions by it.
+    static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 2, 0, 0);
+    static final LocalDateTime LATEST = LocalDateTime.of(2038, 1, 18, 0, 0);
+    private static final String CSV_HEADER = "id,status,requested_at,assigned_at,completed_at,created_at," +
+            "pickup_latitude,pickup_longitude,destination_latitude,destination_longitude," +
+            "citizen_id,citizen_name,citizen_email,citizen_phone," +
+            "ambulance_id,vehicle_number,driver_id,driver_name\n";
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    public BookingExportService(BookingRepository bookingRepository, ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Bookings requested in [{@code from}, {@code to}), clamped to the range a TIMESTAMP can hold.
+     * Only the monthly partitions the range overlaps are read, so an export without bounds reads
+     * them all.
+     */
+    @Transactional(readOnly = true)
+    public long exportBookings(ExportFormat format, LocalDateTime from, LocalDateTime to,
+                               BookingStatus status, Writer writer) throws IOException {
+        // Always bounded, as "(:from IS NULL OR ...)" would keep MySQL from pruning partitions
+        try (Stream<BookingExportRow> rows = bookingRepository.streamForExport(
+                from != null && from.isAfter(EARLIEST) ? from : EARLIEST,
+                to != null && to.isBefore(LATEST) ? to : LATEST, status)) {
+            return format == ExportFormat.NDJSON
+                    ? writeNdjson(rows.iterator(), writer)
+                    : writeCsv(rows.iterator(), writer);
+        }
+    }
+
+    private long writeCsv(Iterator<BookingExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        long count = 0;
+        StringBuilder line = new StringBuilder(256);
+        while (rows.hasNext()) {
+            BookingExportRow row = rows.next();
+            line.setLength(0);
+            appendCsv(line, row.getId()).append(',');
+            appendCsv(line, row.getStatus()).append(',');
+            appendCsv(line, row.getRequestedAt()).append(',');
+            appendCsv(line, row.getAssignedAt()).append(',');
+            appendCsv(line, row.getCompletedAt()).append(',');
+            appendCsv(line, row.getCreatedAt()).append(',');
+            appendCsv(line, row.getPickupLatitude()).append(',');
+            appendCsv(line, row.getPickupLongitude()).append(',');
+            appendCsv(line, row.getDestinationLatitude()).append(',');
+            appendCsv(line, row.getDestinationLongitude()).append(',');
+            appendCsv(line, row.getCitizenId()).append(',');
+            appendCsvText(line, row.getCitizenName()).append(',');
+            appendCsvText(line, row.getCitizenEmail()).append(',');
+            appendCsvText(line, row.getCitizenPhone()).append(',');
+            appendCsv(line, row.getAmbulanceId()).append(',');
+            appendCsvText(line, row.getVehicleNumber()).append(',');
+            appendCsv(line, row.getDriverId()).append(',');
+            appendCsvText(line, row.getDriverName()).append('\n');
+            writer.append(line);
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<BookingExportRow> rows, Writer writer) throws IOException {
+        long count = 0;
+        try (SequenceWriter sequence = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(writer)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    sequence.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        return count;
+    }
+
+    // User-entered text is opened by auditors in spreadsheets, which would evaluate a cell
+    // starting with one of these as a formula; a leading quote makes it plain text
+    private StringBuilder appendCsvText(StringBuilder line, String value) {
+        if (value != null && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return appendCsv(line, "'" + value);
+        }
+        return appendCsv(line, value);
+    }
+
+    private StringBuilder appendCsv(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
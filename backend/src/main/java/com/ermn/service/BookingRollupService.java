@@ -0,0 +1,100 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.Booking;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.repository.BookingRepository;
+import com.ermn.repository.BookingRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Service
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+
+    private final BookingRollupRepository bookingRollupRepository;
+    private final BookingRepository bookingRepository;
+    private final LocationService locationService;
+
+    public BookingRollupService(BookingRollupRepository bookingRollupRepository,
+                                BookingRepository bookingRepository,
+                                LocationService locationService) {
+        this.bookingRollupRepository = bookingRollupRepository;
+        this.bookingRepository = bookingRepository;
+        this.locationService = locationService;
+    }
+
+    /**
+     * Count a newly created booking in its hourly bucket. Must run in the transaction
+     * that inserts the booking so the rollup never drifts from the table.
+     */
+    @Transactional
+    public void recordCreated(Booking booking) {
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    /**
+     * Move a booking from its previous status bucket to its current one.
+     */
+    @Transactional
+    public void recordTransition(Booking booking, BookingStatus previousStatus) {
+        if (previousStatus == booking.getStatus()) {
+            return;
+        }
+        apply(booking, previousStatus, -1);
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    /**
+     * Rebuild all rollups from the bookings table. Used once when the rollups are
+     * introduced and to repair them after manual data fixes.
+     */
+    @Transactional
+    public int backfill() {
+        bookingRollupRepository.deleteAllRollups();
+        int buckets = bookingRollupRepository.backfillFromBookings();
+        log.info("Rebuilt {} booking rollup buckets from booking history", buckets);
+        return buckets;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (bookingRollupRepository.count() == 0 && bookingRepository.count() > 0) {
+            backfill();
+        }
+    }
+
+    private void apply(Booking booking, BookingStatus status, int sign) {
+        Long responseTime = responseTimeSeconds(booking);
+        bookingRollupRepository.applyDelta(
+                toStoredPrecision(booking.getRequestedAt()).truncatedTo(ChronoUnit.HOURS),
+                status.name(),
+                locationService.regionKey(booking.getPickupLatitude(), booking.getPickupLongitude()),
+                sign,
+                responseTime != null ? sign * responseTime : 0,
+                responseTime != null ? sign : 0);
+    }
+
+    private Long responseTimeSeconds(Booking booking) {
+        if (booking.getAssignedAt() == null) {
+            return null;
+        }
+        return Duration.between(toStoredPrecision(booking.getRequestedAt()),
+                toStoredPrecision(booking.getAssignedAt())).getSeconds();
+    }
+
+    // TIMESTAMP columns round fractional seconds, so in-memory values are rounded the same
+    // way to keep incremental updates consistent with what a backfill reads back
+    private LocalDateTime toStoredPrecision(LocalDateTime time) {
+        return time.plusNanos(500_000_000L).truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -8,64 +8,96 @@ import com.ermn.model.entity.Ambulance;
 import com.ermn.model.entity.Booking;
 import com.ermn.model.entity.User;
 import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.ResponseTimeMetric;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.AmbulanceRepository;
 import com.ermn.repository.BookingRepository;
-import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final double[] NEAREST_AMBULANCE_RADII_KM = {5, 20, 80};
+
     private final BookingRepository bookingRepository;
     private final AmbulanceRepository ambulanceRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final LocationService locationService;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final BookingRollupService bookingRollupService;
+    private final ResponseTimeSketchService responseTimeSketchService;
+    private final Timer dispatchAssigned;
+    private final Timer dispatchUnassigned;
+    private final DistributionSummary dispatchSearches;
 
     public BookingService(BookingRepository bookingRepository, AmbulanceRepository ambulanceRepository,
-                         UserRepository userRepository, LocationService locationService,
-                         NotificationService notificationService) {
+                         UserCacheService userCacheService, LocationService locationService,
+                         NotificationOutboxService notificationOutboxService,
+                         BookingRollupService bookingRollupService,
+                         ResponseTimeSketchService responseTimeSketchService,
+                         MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.ambulanceRepository = ambulanceRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.locationService = locationService;
-        this.notificationService = notificationService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.bookingRollupService = bookingRollupService;
+        this.responseTimeSketchService = responseTimeSketchService;
+        this.dispatchAssigned = dispatchTimer(meterRegistry, "assigned");
+        this.dispatchUnassigned = dispatchTimer(meterRegistry, "unassigned");
+        this.dispatchSearches = DistributionSummary.builder("ermn.dispatch.searches")
+                .description("Spatial queries issued to find the nearest ambulance for a booking")
+                .register(meterRegistry);
+    }
+
+    private static Timer dispatchTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("ermn.dispatch.duration")
+                .description("Time to find the nearest available ambulance for a booking")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Transactional
     public BookingResponse createBooking(BookingRequest request, String userEmail) {
-        User citizen = userRepository.findByEmail(userEmail)
+        User citizen = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
+        Coordinate pickupLat = Coordinate.ofDecimal(request.getPickupLatitude());
+        Coordinate pickupLon = Coordinate.ofDecimal(request.getPickupLongitude());
+
         // Find nearest available ambulance
-        Ambulance nearestAmbulance = findNearestAmbulance(
-                request.getPickupLatitude(), request.getPickupLongitude());
+        Ambulance nearestAmbulance = findNearestAmbulance(pickupLat, pickupLon);
 
         Booking booking = Booking.builder()
                 .citizen(citizen)
                 .ambulance(nearestAmbulance)
-                .pickupLatitude(request.getPickupLatitude())
-                .pickupLongitude(request.getPickupLongitude())
-                .destinationLatitude(request.getDestinationLatitude())
-                .destinationLongitude(request.getDestinationLongitude())
+                .pickupLatitude(pickupLat)
+                .pickupLongitude(pickupLon)
+                .destinationLatitude(Coordinate.ofDecimal(request.getDestinationLatitude()))
+                .destinationLongitude(Coordinate.ofDecimal(request.getDestinationLongitude()))
                 .status(nearestAmbulance != null ? BookingStatus.ASSIGNED : BookingStatus.REQUESTED)
                 .requestedAt(LocalDateTime.now())
                 .assignedAt(nearestAmbulance != null ? LocalDateTime.now() : null)
                 .build();
 
         booking = bookingRepository.save(booking);
+        bookingRollupService.recordCreated(booking);
+        responseTimeSketchService.record(ResponseTimeMetric.DISPATCH, booking.getRequestedAt(), booking.getAssignedAt());
 
         if (nearestAmbulance != null) {
             nearestAmbulance.setIsAvailable(false);
             ambulanceRepository.save(nearestAmbulance);
-            notificationService.createNotification(citizen.getId(),
+            notificationOutboxService.publish(citizen.getId(),
                     "Ambulance Assigned", "An ambulance has been assigned to your request",
                     com.ermn.model.enums.NotificationType.BOOKING_UPDATE);
         }
@@ -73,24 +105,34 @@ public class BookingService {
         return mapToBookingResponse(booking);
     }
 
-    private Ambulance findNearestAmbulance(BigDecimal pickupLat, BigDecimal pickupLon) {
-        List<Ambulance> availableAmbulances = ambulanceRepository
-                .findAvailableApprovedAmbulancesWithLocation();
-
-        if (availableAmbulances.isEmpty()) {
-            return null;
+    private Ambulance findNearestAmbulance(Coordinate pickupLat, Coordinate pickupLon) {
+        long start = System.nanoTime();
+        int searches = 0;
+        Ambulance nearest = null;
+        // Widen the search while the spatial index finds nothing; only then rank every ambulance
+        for (double radiusKm : NEAREST_AMBULANCE_RADII_KM) {
+            searches++;
+            List<Ambulance> found = ambulanceRepository.findAvailableApprovedWithinRadius(pickupLat.degrees(), pickupLon.degrees(),
+                    locationService.boundingBox(pickupLat, pickupLon, radiusKm), radiusKm * 1000, 1);
+            if (!found.isEmpty()) {
+                nearest = found.get(0);
+                break;
+            }
+        }
+        if (nearest == null) {
+            searches++;
+            nearest = ambulanceRepository.findNearestAvailableApproved(pickupLat.degrees(), pickupLon.degrees(), 1).stream()
+                    .findFirst()
+                    .orElse(null);
         }
 
-        return availableAmbulances.stream()
-                .min(Comparator.comparingDouble(ambulance ->
-                        locationService.calculateDistance(
-                                pickupLat, pickupLon,
-                                ambulance.getCurrentLatitude(), ambulance.getCurrentLongitude())))
-                .orElse(null);
+        (nearest != null ? dispatchAssigned : dispatchUnassigned).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        dispatchSearches.record(searches);
+        return nearest;
     }
 
     public BookingResponse getBooking(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Booking booking = bookingRepository.findById(id)
@@ -106,7 +148,7 @@ public class BookingService {
     }
 
     public List<BookingResponse> getUserBookings(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         return bookingRepository.findByCitizenOrderByCreatedAtDesc(user).stream()
@@ -116,7 +158,7 @@ public class BookingService {
 
     @Transactional
     public BookingResponse cancelBooking(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Booking booking = bookingRepository.findById(id)
@@ -130,6 +172,7 @@ public class BookingService {
             throw new CustomException("Cannot cancel a completed or already cancelled booking");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         if (booking.getAmbulance() != null) {
             booking.getAmbulance().setIsAvailable(true);
@@ -137,12 +180,13 @@ public class BookingService {
         }
 
         booking = bookingRepository.save(booking);
+        bookingRollupService.recordTransition(booking, previousStatus);
         return mapToBookingResponse(booking);
     }
 
     @Transactional
     public BookingResponse updateBookingStatus(Long id, BookingStatus status, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Booking booking = bookingRepository.findById(id)
@@ -152,24 +196,46 @@ public class BookingService {
             throw new CustomException("Unauthorized to update this booking");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(status);
-        if (status == BookingStatus.COMPLETED) {
+        // Dispatch time is recorded when the booking is created with an ambulance. Arrival and trip
+        // times are recorded when their timestamps are first set, so moving a booking back and forth
+        // between statuses adds no samples
+        ResponseTimeMetric reached = null;
+        if (status == BookingStatus.ARRIVED && booking.getArrivedAt() == null) {
+            booking.setArrivedAt(LocalDateTime.now());
+            reached = ResponseTimeMetric.ARRIVAL;
+        } else if (status == BookingStatus.COMPLETED && booking.getCompletedAt() == null) {
             booking.setCompletedAt(LocalDateTime.now());
-            if (booking.getAmbulance() != null) {
-                booking.getAmbulance().setIsAvailable(true);
-                ambulanceRepository.save(booking.getAmbulance());
-            }
+            reached = ResponseTimeMetric.TRIP;
+        }
+        if (status == BookingStatus.COMPLETED && booking.getAmbulance() != null) {
+            booking.getAmbulance().setIsAvailable(true);
+            ambulanceRepository.save(booking.getAmbulance());
         }
 
         booking = bookingRepository.save(booking);
-        notificationService.createNotification(booking.getCitizen().getId(),
+        bookingRollupService.recordTransition(booking, previousStatus);
+        if (reached != null) {
+            recordResponseTime(booking, reached);
+        }
+        notificationOutboxService.publish(booking.getCitizen().getId(),
                 "Booking Status Updated", "Your booking status has been updated to " + status,
                 com.ermn.model.enums.NotificationType.BOOKING_UPDATE);
 
         return mapToBookingResponse(booking);
     }
 
-    private BookingResponse mapToBookingResponse(Booking booking) {
+    private void recordResponseTime(Booking booking, ResponseTimeMetric metric) {
+        LocalDateTime reachedAt = switch (metric) {
+            case DISPATCH -> booking.getAssignedAt();
+            case ARRIVAL -> booking.getArrivedAt();
+            case TRIP -> booking.getCompletedAt();
+        };
+        responseTimeSketchService.record(metric, booking.getRequestedAt(), reachedAt);
+    }
+
+    public BookingResponse mapToBookingResponse(Booking booking) {
         AmbulanceResponse ambulanceResponse = null;
         if (booking.getAmbulance() != null) {
             ambulanceResponse = AmbulanceResponse.builder()
@@ -7,35 +7,64 @@ import com.ermn.model.dto.response.HospitalResponse;
 import com.ermn.model.entity.BedInventory;
 import com.ermn.model.entity.Hospital;
 import com.ermn.model.entity.User;
+import com.ermn.model.geo.Coordinate;
 import com.ermn.repository.BedInventoryRepository;
 import com.ermn.repository.HospitalRepository;
-import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class HospitalService {
 
+    private static final int MAX_NEARBY_RESULTS = 100;
+
     private final HospitalRepository hospitalRepository;
     private final BedInventoryRepository bedInventoryRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final LocationService locationService;
+    private final ReferenceCache<CachedHospital> hospitalCache;
+    private final Counter bedInventoryUpdates;
 
     public HospitalService(HospitalRepository hospitalRepository, BedInventoryRepository bedInventoryRepository,
-                          UserRepository userRepository, LocationService locationService) {
+                          UserCacheService userCacheService, LocationService locationService,
+                          MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                          @Value("${ermn.reference-cache.max-size:10000}") long maxCacheSize,
+                          @Value("${ermn.reference-cache.ttl:10m}") Duration cacheTtl,
+                          @Value("${ermn.reference-cache.invalidation-overlap:10s}") Duration invalidationOverlap) {
         this.hospitalRepository = hospitalRepository;
         this.bedInventoryRepository = bedInventoryRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.locationService = locationService;
+        this.hospitalCache = new ReferenceCache<>("hospitals", maxCacheSize, cacheTtl, invalidationOverlap,
+                meterRegistry, transactionManager,
+                ids -> loadHospitals(hospitalRepository.findAllById(ids)),
+                () -> loadHospitals(hospitalRepository.findAll()),
+                hospitalRepository::findIdsChangedSince);
+        this.bedInventoryUpdates = Counter.builder("ermn.inventory.updates")
+                .description("Inventory updates by hospital and blood bank admins")
+                .tag("type", "beds")
+                .register(meterRegistry);
     }
 
-    public List<HospitalResponse> getAllHospitals(BigDecimal userLat, BigDecimal userLon) {
-        return hospitalRepository.findAll().stream()
-                .map(hospital -> mapToHospitalResponse(hospital, userLat, userLon))
+    public List<HospitalResponse> getAllHospitals(Coordinate userLat, Coordinate userLon, Double radiusKm, Integer limit) {
+        if (userLat != null && userLon != null && (radiusKm != null || limit != null)) {
+            return getNearbyHospitals(userLat, userLon, radiusKm, limit);
+        }
+        return hospitalCache.getAll().stream()
+                .map(cached -> withDistance(cached.response(), userLat, userLon))
                 .sorted((h1, h2) -> {
                     if (h1.getDistanceKm() == null) return 1;
                     if (h2.getDistanceKm() == null) return -1;
@@ -44,31 +73,64 @@ public class HospitalService {
                 .collect(Collectors.toList());
     }
 
-    public HospitalResponse getHospital(Long id, BigDecimal userLat, BigDecimal userLon) {
-        Hospital hospital = hospitalRepository.findById(id)
+    /**
+     * Nearest first, within {@code radiusKm} if given, at most {@code limit} results. Matching ids
+     * come from the spatial index; the rest of each response from the cache.
+     */
+    private List<HospitalResponse> getNearbyHospitals(Coordinate userLat, Coordinate userLon, Double radiusKm, Integer limit) {
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : MAX_NEARBY_RESULTS, MAX_NEARBY_RESULTS));
+        List<Long> ids = radiusKm != null
+                ? hospitalRepository.findIdsWithinRadius(userLat.degrees(), userLon.degrees(),
+                        locationService.boundingBox(userLat, userLon, radiusKm), radiusKm * 1000, pageSize)
+                : hospitalRepository.findNearestIds(userLat.degrees(), userLon.degrees(), pageSize);
+        return ids.stream()
+                .map(hospitalCache::get)
+                .flatMap(Optional::stream)
+                .map(cached -> withDistance(cached.response(), userLat, userLon))
+                .collect(Collectors.toList());
+    }
+
+    public HospitalResponse getHospital(Long id, Coordinate userLat, Coordinate userLon) {
+        CachedHospital cached = hospitalCache.get(id)
                 .orElseThrow(() -> new CustomException("Hospital not found"));
-        return mapToHospitalResponse(hospital, userLat, userLon);
+        return withDistance(cached.response(), userLat, userLon);
     }
 
     public HospitalResponse getMyHospital(String userEmail) {
-        User admin = userRepository.findByEmail(userEmail)
+        User admin = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
-        Hospital hospital = hospitalRepository.findByAdmin(admin)
+        return hospitalCache.getAll().stream()
+                .filter(cached -> admin.getId().equals(cached.adminId()))
+                .map(CachedHospital::response)
+                .findFirst()
                 .orElseThrow(() -> new CustomException("No hospital assigned to your account"));
-        return mapToHospitalResponse(hospital, null, null);
     }
 
     public List<BedInventoryResponse> getBedInventory(Long hospitalId) {
-        Hospital hospital = hospitalRepository.findById(hospitalId)
+        CachedHospital cached = hospitalCache.get(hospitalId)
                 .orElseThrow(() -> new CustomException("Hospital not found"));
-        return bedInventoryRepository.findByHospital(hospital).stream()
-                .map(this::mapToBedInventoryResponse)
-                .collect(Collectors.toList());
+        return cached.response().getBedInventories();
+    }
+
+    /**
+     * Drop a hospital's cached snapshot after the hospital or its bed inventory changed.
+     */
+    public void evictHospital(Long hospitalId) {
+        hospitalCache.evict(hospitalId);
+    }
+
+    /**
+     * Drop cached hospitals that were changed through other instances.
+     */
+    @Scheduled(initialDelayString = "${ermn.reference-cache.invalidation-sync-interval-ms:1000}",
+               fixedDelayString = "${ermn.reference-cache.invalidation-sync-interval-ms:1000}")
+    public void evictChangedHospitals() {
+        hospitalCache.evictChanged();
     }
 
     @Transactional
     public BedInventoryResponse updateBedInventory(Long hospitalId, BedInventoryUpdateRequest request, String userEmail) {
-        User admin = userRepository.findByEmail(userEmail)
+        User admin = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new CustomException("User not found"));
 
         Hospital hospital = hospitalRepository.findById(hospitalId)
@@ -88,21 +150,38 @@ public class HospitalService {
         bedInventory.setTotalCapacity(request.getTotalCapacity());
         bedInventory.setAvailableCount(request.getAvailableCount());
         bedInventory = bedInventoryRepository.save(bedInventory);
+        bedInventoryUpdates.increment();
+        hospitalCache.evict(hospitalId);
 
         return mapToBedInventoryResponse(bedInventory);
     }
 
-    private HospitalResponse mapToHospitalResponse(Hospital hospital, BigDecimal userLat, BigDecimal userLon) {
-        Double distance = null;
-        if (userLat != null && userLon != null) {
-            distance = locationService.calculateDistance(
-                    userLat, userLon, hospital.getLatitude(), hospital.getLongitude());
+    private HospitalResponse withDistance(HospitalResponse response, Coordinate userLat, Coordinate userLon) {
+        if (userLat == null || userLon == null) {
+            return response;
+        }
+        return response.toBuilder()
+                .distanceKm(locationService.calculateDistance(
+                        userLat, userLon, response.getLatitude(), response.getLongitude()))
+                .build();
+    }
+
+    private Map<Long, CachedHospital> loadHospitals(Collection<Hospital> hospitals) {
+        if (hospitals.isEmpty()) {
+            return Map.of();
         }
+        Map<Long, List<BedInventory>> inventories = bedInventoryRepository.findByHospitalIn(hospitals).stream()
+                .collect(Collectors.groupingBy(inventory -> inventory.getHospital().getId()));
+        return hospitals.stream().collect(Collectors.toMap(Hospital::getId,
+                hospital -> new CachedHospital(hospital.getAdmin().getId(),
+                        mapToHospitalResponse(hospital, inventories.getOrDefault(hospital.getId(), List.of()))),
+                (a, b) -> a, LinkedHashMap::new));
+    }
 
-        List<BedInventoryResponse> bedInventories = bedInventoryRepository
-                .findByHospital(hospital).stream()
+    public HospitalResponse mapToHospitalResponse(Hospital hospital, List<BedInventory> inventories) {
+        List<BedInventoryResponse> bedInventories = inventories.stream()
                 .map(this::mapToBedInventoryResponse)
-                .collect(Collectors.toList());
+                .toList();
 
         return HospitalResponse.builder()
                 .id(hospital.getId())
@@ -111,7 +190,6 @@ public class HospitalService {
                 .latitude(hospital.getLatitude())
                 .longitude(hospital.getLongitude())
                 .phone(hospital.getPhone())
-                .distanceKm(distance)
                 .bedInventories(bedInventories)
                 .createdAt(hospital.getCreatedAt())
                 .build();
@@ -126,4 +204,7 @@ public class HospitalService {
                 .lastUpdated(bedInventory.getLastUpdated())
                 .build();
     }
+
+    private record CachedHospital(Long adminId, HospitalResponse response) {
+    }
 }
@@ -0,0 +1,231 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.Ambulance;
+import com.ermn.model.entity.BedInventory;
+import com.ermn.model.entity.Booking;
+import com.ermn.model.entity.Hospital;
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.BedType;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.Role;
+import com.ermn.model.geo.Coordinate;
+import com.ermn.security.JwtTokenProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Runs the CPU-bound parts of the hot paths on synthetic in-memory data before the application
+ * reports ready, so the first real requests of a new instance do not run interpreted: distance
+ * ranking and bounding boxes, DTO mapping, JSON serialization of hospital and booking responses,
+ * and JWT signing and verification. Nothing is read from or written to the database.
+ * <p>
+ * Application runners complete before the readiness state becomes {@code ACCEPTING_TRAFFIC}.
+ * Warm-up stops after {@code max-iterations}, after {@code max-duration}, or once a batch of
+ * iterations spends less than {@code compile-time-threshold} in the JIT compiler.
+ */
+@Component
+@ConditionalOnProperty(name = "ermn.warmup.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JitWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+    private static final int CANDIDATES = 32;
+    private static final double[] RADII_KM = {5, 20, 80};
+
+    private final LocationService locationService;
+    private final BookingService bookingService;
+    private final HospitalService hospitalService;
+    private final JwtTokenProvider tokenProvider;
+    private final ObjectMapper objectMapper;
+    private final Timer duration;
+    private final int maxIterations;
+    private final int batchSize;
+    private final Duration compileTimeThreshold;
+    private final Duration maxDuration;
+    private long sink;
+
+    public JitWarmup(LocationService locationService, BookingService bookingService, HospitalService hospitalService,
+                     ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     @Value("${jwt.secret}") String jwtSecret,
+                     @Value("${jwt.expiration}") long jwtExpiration,
+                     @Value("${ermn.warmup.max-iterations:20000}") int maxIterations,
+                     @Value("${ermn.warmup.batch-size:500}") int batchSize,
+                     @Value("${ermn.warmup.compile-time-threshold:10ms}") Duration compileTimeThreshold,
+                     @Value("${ermn.warmup.max-duration:30s}") Duration maxDuration) {
+        this.locationService = locationService;
+        this.bookingService = bookingService;
+        this.hospitalService = hospitalService;
+        // Its own provider with a one-entry cache, so warm-up tokens do not crowd real ones out of
+        // the shared verified-token cache
+        this.tokenProvider = new JwtTokenProvider(jwtSecret, jwtExpiration, jwtExpiration, 1, Duration.ofSeconds(1));
+        this.objectMapper = objectMapper;
+        this.duration = Timer.builder("ermn.warmup.duration")
+                .description("Time spent warming up the JIT before accepting traffic")
+                .register(meterRegistry);
+        this.maxIterations = maxIterations;
+        this.batchSize = batchSize;
+        this.compileTimeThreshold = compileTimeThreshold;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean compileTimeKnown = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compileTimeAtStart = compileTimeKnown ? compiler.getTotalCompilationTime() : 0;
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+
+        SplittableRandom random = new SplittableRandom(42);
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername("warmup@ermn.invalid")
+                .password("")
+                .roles(Role.CITIZEN.name())
+                .build();
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        int iterations = 0;
+        String stoppedBy = "max-iterations";
+        try {
+            while (iterations < maxIterations) {
+                long batchCompileStart = compileTimeKnown ? compiler.getTotalCompilationTime() : 0;
+                for (int i = 0; i < batchSize && iterations < maxIterations; i++, iterations++) {
+                    iteration(random, authentication);
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    stoppedBy = "max-duration";
+                    break;
+                }
+                if (compileTimeKnown
+                        && compiler.getTotalCompilationTime() - batchCompileStart < compileTimeThreshold.toMillis()) {
+                    stoppedBy = "compile-time-threshold";
+                    break;
+                }
+            }
+        } catch (RuntimeException | JsonProcessingException ex) {
+            // Never keep an instance out of service because of warm-up
+            log.warn("JIT warm-up aborted after {} iterations: {}", iterations, ex.getMessage());
+            stoppedBy = "error";
+        }
+
+        long elapsed = System.nanoTime() - started;
+        duration.record(Duration.ofNanos(elapsed));
+        log.info("JIT warm-up finished after {} iterations in {} ms ({} ms compiling, stopped by {})",
+                iterations, Duration.ofNanos(elapsed).toMillis(),
+                compileTimeKnown ? compiler.getTotalCompilationTime() - compileTimeAtStart : "unknown", stoppedBy);
+        log.debug("JIT warm-up checksum {}", sink);
+    }
+
+    private void iteration(SplittableRandom random, UsernamePasswordAuthenticationToken authentication)
+            throws JsonProcessingException {
+        Coordinate latitude = coordinate(random, 12.97);
+        Coordinate longitude = coordinate(random, 77.59);
+
+        // Dispatch and nearby searches: bounding boxes, then candidates ranked by distance
+        for (double radiusKm : RADII_KM) {
+            sink += locationService.boundingBox(latitude, longitude, radiusKm).length();
+        }
+        List<Hospital> candidates = new ArrayList<>(CANDIDATES);
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates.add(hospital(random, i));
+        }
+        candidates.sort(Comparator.comparingDouble(hospital -> locationService.calculateDistance(
+                latitude, longitude, hospital.getLatitude(), hospital.getLongitude())));
+        Hospital nearest = candidates.get(0);
+        sink += locationService.roundDistance(locationService.calculateDistance(
+                latitude, longitude, nearest.getLatitude(), nearest.getLongitude())).scale();
+        sink += locationService.regionKey(latitude, longitude).length();
+
+        // DTO mapping and JSON serialization
+        List<BedInventory> inventories = new ArrayList<>();
+        for (BedType type : BedType.values()) {
+            inventories.add(BedInventory.builder()
+                    .id((long) type.ordinal())
+                    .hospital(nearest)
+                    .bedType(type)
+                    .totalCapacity(50)
+                    .availableCount(random.nextInt(51))
+                    .lastUpdated(LocalDateTime.now())
+                    .build());
+        }
+        sink += objectMapper.writeValueAsBytes(hospitalService.mapToHospitalResponse(nearest, inventories)).length;
+        sink += objectMapper.writeValueAsBytes(bookingService.mapToBookingResponse(booking(random, latitude, longitude)))
+                .length;
+
+        // JWT signing and verification of a token not seen before
+        String token = tokenProvider.generateToken(authentication, UUID.randomUUID());
+        sink += tokenProvider.parseToken(token).getSubject().length();
+    }
+
+    private static Hospital hospital(SplittableRandom random, long id) {
+        return Hospital.builder()
+                .id(id)
+                .name("Warm-up Hospital " + id)
+                .address("Warm-up Road")
+                .latitude(coordinate(random, 12.97))
+                .longitude(coordinate(random, 77.59))
+                .phone("0000000000")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Booking booking(SplittableRandom random, Coordinate latitude, Coordinate longitude) {
+        User citizen = User.builder()
+                .id(1L)
+                .email("warmup@ermn.invalid")
+                .fullName("Warm-up Citizen")
+                .phone("0000000000")
+                .role(Role.CITIZEN)
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        Ambulance ambulance = Ambulance.builder()
+                .id(1L)
+                .vehicleNumber("WARMUP-1")
+                .isAvailable(false)
+                .isApproved(true)
+                .currentLatitude(coordinate(random, 12.97))
+                .currentLongitude(coordinate(random, 77.59))
+                .lastUpdatedLocation(LocalDateTime.now())
+                .build();
+        LocalDateTime requestedAt = LocalDateTime.now().minusMinutes(random.nextInt(30));
+        return Booking.builder()
+                .id(random.nextLong(1, Long.MAX_VALUE))
+                .citizen(citizen)
+                .ambulance(ambulance)
+                .pickupLatitude(latitude)
+                .pickupLongitude(longitude)
+                .status(BookingStatus.ASSIGNED)
+                .requestedAt(requestedAt)
+                .assignedAt(requestedAt.plusMinutes(2))
+                .createdAt(requestedAt)
+                .build();
+    }
+
+    private static Coordinate coordinate(SplittableRandom random, double center) {
+        return Coordinate.ofDegrees(center + random.nextDouble(-0.2, 0.2));
+    }
+}
@@ -1,14 +1,18 @@
 package com.ermn.service;
 
+import com.ermn.model.geo.Coordinate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Locale;
 
 @Service
 public class LocationService {
 
     private static final double EARTH_RADIUS_KM = 6371.0;
+    // 0.1 degree in Coordinate units
+    private static final int E7_PER_REGION = 1_000_000;
 
     /**
      * Calculate distance between two coordinates using Haversine formula
@@ -18,11 +22,15 @@ public class LocationService {
      * @param lon2 Longitude of second point
      * @return Distance in kilometers
      */
-    public double calculateDistance(BigDecimal lat1, BigDecimal lon1, BigDecimal lat2, BigDecimal lon2) {
-        double lat1Rad = Math.toRadians(lat1.doubleValue());
-        double lat2Rad = Math.toRadians(lat2.doubleValue());
-        double deltaLat = Math.toRadians(lat2.doubleValue() - lat1.doubleValue());
-        double deltaLon = Math.toRadians(lon2.doubleValue() - lon1.doubleValue());
+    public double calculateDistance(Coordinate lat1, Coordinate lon1, Coordinate lat2, Coordinate lon2) {
+        return calculateDistance(lat1.degrees(), lon1.degrees(), lat2.degrees(), lon2.degrees());
+    }
+
+    public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
 
         double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
                    Math.cos(lat1Rad) * Math.cos(lat2Rad) *
@@ -33,7 +41,48 @@ public class LocationService {
         return EARTH_RADIUS_KM * c;
     }
 
+    /**
+     * Latitude/longitude rectangle enclosing all points within the given distance, as WKT in
+     * longitude-latitude order, for use as a spatial index prefilter. The rectangle is clipped
+     * at the poles and at the antimeridian.
+     * @param latitude Latitude of the centre
+     * @param longitude Longitude of the centre
+     * @param radiusKm Distance from the centre in kilometers
+     * @return WKT polygon
+     */
+    public String boundingBox(Coordinate latitude, Coordinate longitude, double radiusKm) {
+        double lat = latitude.degrees();
+        double lon = longitude.degrees();
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angularRadius);
+        double minLat = Math.max(-90.0, lat - deltaLat);
+        double maxLat = Math.min(90.0, lat + deltaLat);
+
+        double minLon = -180.0;
+        double maxLon = 180.0;
+        double sinRatio = Math.sin(angularRadius) / Math.cos(Math.toRadians(lat));
+        if (minLat > -90.0 && maxLat < 90.0 && sinRatio < 1.0) {
+            double deltaLon = Math.toDegrees(Math.asin(sinRatio));
+            minLon = Math.max(-180.0, lon - deltaLon);
+            maxLon = Math.min(180.0, lon + deltaLon);
+        }
+
+        return String.format(Locale.ROOT, "POLYGON((%1$.8f %2$.8f, %3$.8f %2$.8f, %3$.8f %4$.8f, %1$.8f %4$.8f, %1$.8f %2$.8f))",
+                minLon, minLat, maxLon, maxLat);
+    }
+
     public BigDecimal roundDistance(double distance) {
         return BigDecimal.valueOf(distance).setScale(2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * Coarse region key used to group bookings for analytics: the 0.1 degree grid cell
+     * (roughly 11 km) containing the point, e.g. "129:775"
+     * @param latitude Latitude of the point
+     * @param longitude Longitude of the point
+     * @return Grid cell key
+     */
+    public String regionKey(Coordinate latitude, Coordinate longitude) {
+        return Math.floorDiv(latitude.e7(), E7_PER_REGION) + ":" + Math.floorDiv(longitude.e7(), E7_PER_REGION);
+    }
 }
@@ -0,0 +1,238 @@
+package com.ermn.service;
+
+import com.ermn.model.dto.response.NotificationResponse;
+import com.ermn.model.entity.Notification;
+import com.ermn.model.entity.NotificationOutboxEvent;
+import com.ermn.model.enums.NotificationType;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox for notifications. Booking and inventory changes write an event to
+ * {@code notification_outbox} in their own transaction, so creating the notification adds one insert
+ * to the transaction and cannot roll it back. A scheduled dispatcher drains the outbox in batches,
+ * creates the notifications, deletes the events in the same transaction, and then pushes each
+ * notification to its user's {@code /user/queue/notifications}, or a role-wide one once to
+ * {@code /topic/notifications/role/<role>}.
+ * <p>
+ * Delivery is at least once: an event is deleted only when its notifications commit, and a failed
+ * event is retried with exponential backoff. With {@code ermn.outbox.enabled=false} notifications
+ * are created directly in the caller's transaction instead.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 512;
+    private static final String USER_DESTINATION = "/queue/notifications";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Timer deliveryLatency;
+    private final Counter retries;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     NotificationService notificationService,
+                                     SimpMessagingTemplate messagingTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${ermn.outbox.enabled:true}") boolean enabled,
+                                     @Value("${ermn.outbox.batch-size:100}") int batchSize,
+                                     @Value("${ermn.outbox.retry-backoff:5s}") Duration retryBackoff,
+                                     @Value("${ermn.outbox.max-retry-backoff:10m}") Duration maxRetryBackoff,
+                                     MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.deliveryLatency = Timer.builder("ermn.notifications.delivery.latency")
+                .description("Time from a notification being raised to it being created and pushed")
+                .tag("outbox", String.valueOf(enabled))
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        this.retries = Counter.builder("ermn.notifications.outbox.retries")
+                .description("Outbox events whose delivery failed and was rescheduled")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Long userId, String title, String message, NotificationType type) {
+        publish(NotificationOutboxEvent.builder().userId(userId), title, message, type);
+    }
+
+    /**
+     * Notifies every active user with the role; recipients are resolved when the event is delivered.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishToRole(Role role, String title, String message, NotificationType type) {
+        publish(NotificationOutboxEvent.builder().recipientRole(role), title, message, type);
+    }
+
+    private void publish(NotificationOutboxEvent.NotificationOutboxEventBuilder builder,
+                         String title, String message, NotificationType type) {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutboxEvent event = builder
+                .title(title)
+                .message(message)
+                .type(type)
+                .availableAt(now)
+                .createdAt(now)
+                .build();
+        if (enabled) {
+            outboxRepository.save(event);
+            return;
+        }
+        Delivery delivery = deliver(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                push(delivery);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ermn.outbox.poll-interval-ms:200}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    private int dispatchBatch() {
+        List<Long> ids = new ArrayList<>();
+        List<Delivery> deliveries;
+        try {
+            deliveries = transactionTemplate.execute(status -> {
+                List<NotificationOutboxEvent> events = outboxRepository.lockDue(LocalDateTime.now(), batchSize);
+                events.forEach(event -> ids.add(event.getId()));
+                List<Delivery> delivered = events.stream().map(this::deliver).toList();
+                outboxRepository.deleteAllInBatch(events);
+                return delivered;
+            });
+        } catch (RuntimeException ex) {
+            if (ids.isEmpty()) {
+                log.warn("Could not read the notification outbox: {}", ex.getMessage());
+                return 0;
+            }
+            // One failing event rolls back the whole batch: deliver one at a time so the others still go out
+            log.warn("Could not deliver a batch of {} outbox events, retrying them one by one: {}",
+                    ids.size(), ex.getMessage());
+            ids.forEach(this::dispatchOne);
+            return ids.size();
+        }
+        deliveries.forEach(this::push);
+        return deliveries.size();
+    }
+
+    private void dispatchOne(Long id) {
+        Delivery delivery;
+        try {
+            delivery = transactionTemplate.execute(status -> outboxRepository.findById(id)
+                    .map(event -> {
+                        Delivery delivered = deliver(event);
+                        outboxRepository.delete(event);
+                        return delivered;
+                    })
+                    .orElse(null));
+        } catch (RuntimeException ex) {
+            reschedule(id, ex);
+            return;
+        }
+        if (delivery != null) {
+            push(delivery);
+        }
+    }
+
+    private void reschedule(Long id, RuntimeException cause) {
+        retries.increment();
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(id).ifPresent(event -> {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+                String error = String.valueOf(cause.getMessage());
+                event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                log.warn("Could not deliver outbox event {} (attempt {}), retrying at {}: {}",
+                        id, event.getAttempts(), event.getAvailableAt(), error);
+            }));
+        } catch (RuntimeException ex) {
+            // Left as it was and picked up again by the next dispatch
+            log.warn("Could not reschedule outbox event {}: {}", id, ex.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private Delivery deliver(NotificationOutboxEvent event) {
+        if (event.getUserId() != null) {
+            Notification notification = notificationService.createNotification(event.getUserId(),
+                    event.getTitle(), event.getMessage(), event.getType());
+            return new Delivery(event.getCreatedAt(), notification.getUser().getEmail(), USER_DESTINATION,
+                    notificationService.mapToNotificationResponse(notification));
+        }
+        notificationService.createRoleNotifications(event.getRecipientRole(),
+                event.getTitle(), event.getMessage(), event.getType());
+        // Bulk-inserted, so there are no ids to push; subscribers reload their list instead
+        return new Delivery(event.getCreatedAt(), null, "/topic/notifications/role/" + event.getRecipientRole(),
+                NotificationResponse.builder()
+                        .title(event.getTitle())
+                        .message(event.getMessage())
+                        .type(event.getType())
+                        .isRead(false)
+                        .createdAt(event.getCreatedAt())
+                        .build());
+    }
+
+    private void push(Delivery delivery) {
+        if (delivery.user() != null) {
+            messagingTemplate.convertAndSendToUser(delivery.user(), delivery.destination(), delivery.notification());
+        } else {
+            messagingTemplate.convertAndSend(delivery.destination(), delivery.notification());
+        }
+        deliveryLatency.record(Duration.between(delivery.raisedAt(), LocalDateTime.now()));
+    }
+
+    /**
+     * A push to {@code destination}, or to the user's own copy of it when {@code user} (the email
+     * their sessions authenticated as) is set.
+     */
+    private record Delivery(LocalDateTime raisedAt, String user, String destination,
+                            NotificationResponse notification) {
+    }
+}
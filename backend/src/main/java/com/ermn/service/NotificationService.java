@@ -1,33 +1,48 @@
 package com.ermn.service;
 
-import com.ermn.model.entity.BloodBank;
 import com.ermn.model.entity.Notification;
 import com.ermn.model.entity.User;
-import com.ermn.model.enums.BloodGroup;
 import com.ermn.model.enums.NotificationType;
 import com.ermn.model.enums.Role;
 import com.ermn.repository.NotificationRepository;
-import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
+    private final Duration listWindow;
+    private final Map<NotificationType, Counter> created = new EnumMap<>(NotificationType.class);
 
-    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationService(NotificationRepository notificationRepository, UserCacheService userCacheService,
+                               @Value("${ermn.notifications.list-window:30d}") Duration listWindow,
+                               MeterRegistry meterRegistry) {
         this.notificationRepository = notificationRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        this.listWindow = listWindow;
+        for (NotificationType type : NotificationType.values()) {
+            created.put(type, Counter.builder("ermn.notifications.created")
+                    .description("Notifications created")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
     }
 
     @Transactional
-    public void createNotification(Long userId, String title, String message, NotificationType type) {
-        User user = userRepository.findById(userId)
+    public Notification createNotification(Long userId, String title, String message, NotificationType type) {
+        User user = userCacheService.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Notification notification = Notification.builder()
@@ -38,43 +53,38 @@ public class NotificationService {
                 .isRead(false)
                 .build();
 
-        notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        created.get(type).increment();
+        return notification;
     }
 
+    /**
+     * Creates the notification for every active user with the role, with a single
+     * {@code INSERT ... SELECT}, and returns how many were created.
+     */
     @Transactional
-    public void createBloodShortageNotification(BloodBank bloodBank, BloodGroup bloodGroup) {
-        // Notify all super admins
-        List<User> superAdmins = userRepository.findAll().stream()
-                .filter(user -> user.getRole() == Role.SUPER_ADMIN && user.getIsActive())
-                .collect(java.util.stream.Collectors.toList());
-
-        String message = String.format("Emergency blood shortage: %s at %s has less than threshold units",
-                bloodGroup, bloodBank.getName());
-
-        for (User admin : superAdmins) {
-            Notification notification = Notification.builder()
-                    .user(admin)
-                    .title("Blood Shortage Alert")
-                    .message(message)
-                    .type(NotificationType.BLOOD_SHORTAGE)
-                    .isRead(false)
-                    .build();
-            notificationRepository.save(notification);
-        }
+    public int createRoleNotifications(Role role, String title, String message, NotificationType type) {
+        int recipients = notificationRepository.insertForRole(role.name(), title, message, type.name(),
+                LocalDateTime.now());
+        created.get(type).increment(recipients);
+        return recipients;
     }
 
+    @Transactional(readOnly = true)
     public List<com.ermn.model.dto.response.NotificationResponse> getUserNotifications(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return notificationRepository.findByUserOrderByCreatedAtDesc(user).stream()
+        // Bounded by created_at so only the most recent monthly partitions are read
+        return notificationRepository.findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(user, windowStart())
+                .stream()
                 .map(this::mapToNotificationResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public void markAsRead(Long notificationId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Notification notification = notificationRepository.findById(notificationId)
@@ -90,13 +100,17 @@ public class NotificationService {
 
     @Transactional
     public void markAllAsRead(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = userCacheService.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        notificationRepository.markAllAsReadByUser(user);
+        notificationRepository.markAllAsReadByUser(user, windowStart());
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minus(listWindow);
     }
 
-    private com.ermn.model.dto.response.NotificationResponse mapToNotificationResponse(Notification notification) {
+    public com.ermn.model.dto.response.NotificationResponse mapToNotificationResponse(Notification notification) {
         return com.ermn.model.dto.response.NotificationResponse.builder()
                 .id(notification.getId())
                 .title(notification.getTitle())
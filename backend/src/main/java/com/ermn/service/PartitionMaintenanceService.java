@@ -0,0 +1,158 @@
+package com.ermn.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of bookings and notifications rolling: creates the partitions for
+ * the coming months and moves partitions older than the retention window into the compressed
+ * archive tables.
+ * <p>
+ * Partition {@code pYYYYMM} holds the rows before the first day of the following month that are
+ * not in an earlier partition; {@code p_future} catches everything beyond the last monthly
+ * partition, so inserts never fail if this job falls behind.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String LOCK_NAME = "ermn_partition_maintenance";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final List<PartitionedTable> tables;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${ermn.partitioning.enabled:true}") boolean enabled,
+                                       @Value("${ermn.partitioning.months-ahead:3}") int monthsAhead,
+                                       @Value("${ermn.partitioning.bookings.retention-months:12}") int bookingRetentionMonths,
+                                       @Value("${ermn.partitioning.notifications.retention-months:3}") int notificationRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.tables = List.of(
+                new PartitionedTable("bookings", "requested_at", bookingRetentionMonths,
+                        "id, citizen_id, ambulance_id, pickup_latitude, pickup_longitude, destination_latitude, " +
+                        "destination_longitude, status, requested_at, assigned_at, arrived_at, completed_at, created_at"),
+                new PartitionedTable("notifications", "created_at", notificationRetentionMonths,
+                        "id, user_id, title, message, type, is_read, created_at"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${ermn.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // DDL from two instances would collide; GET_LOCK is held by the connection, so both
+            // calls and the work in between must use the same one
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+                if (acquired == null || acquired != 1) {
+                    return null;
+                }
+                try {
+                    YearMonth now = YearMonth.now();
+                    for (PartitionedTable table : tables) {
+                        rollForward(locked, table, now);
+                        archive(locked, table, now);
+                    }
+                } finally {
+                    locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Split {@code p_future} so that monthly partitions exist up to {@code monthsAhead} months
+     * from now. On the first run the oldest row's month is the first partition, so existing
+     * history is split by month as well.
+     */
+    void rollForward(JdbcTemplate jdbc, PartitionedTable table, YearMonth now) {
+        List<YearMonth> monthly = monthlyPartitions(jdbc, table);
+        YearMonth next;
+        if (monthly.isEmpty()) {
+            Timestamp oldest = jdbc.queryForObject(
+                    "SELECT MIN(" + table.column() + ") FROM " + table.name(), Timestamp.class);
+            YearMonth oldestMonth = oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : now;
+            next = oldestMonth.isBefore(now) ? oldestMonth : now;
+        } else {
+            next = monthly.get(monthly.size() - 1).plusMonths(1);
+        }
+        YearMonth last = now.plusMonths(monthsAhead);
+        if (next.isAfter(last)) {
+            return;
+        }
+
+        StringBuilder partitions = new StringBuilder();
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+            partitions.append("PARTITION ").append(month.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN (UNIX_TIMESTAMP('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00')), ");
+        }
+        jdbc.execute("ALTER TABLE " + table.name() + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                partitions + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+        log.info("Added {} partitions {} to {}", table.name(), next, last);
+    }
+
+    /**
+     * Copy each partition whose month ended before the retention window into the archive
+     * table, then drop it. Re-running after a failure between the two steps is safe because
+     * rows that were already copied are skipped.
+     */
+    void archive(JdbcTemplate jdbc, PartitionedTable table, YearMonth now) {
+        YearMonth oldestKept = now.minusMonths(table.retentionMonths());
+        for (YearMonth month : monthlyPartitions(jdbc, table)) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            String partition = month.format(PARTITION_NAME);
+            int rows = jdbc.update("INSERT IGNORE INTO " + table.name() + "_archive (" + table.columns() + ") " +
+                    "SELECT " + table.columns() + " FROM " + table.name() + " PARTITION (" + partition + ")");
+            jdbc.execute("ALTER TABLE " + table.name() + " DROP PARTITION " + partition);
+            log.info("Archived {} partition {} ({} rows)", table.name(), partition, rows);
+        }
+    }
+
+    List<YearMonth> monthlyPartitions(JdbcTemplate jdbc, PartitionedTable table) {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbc.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table.name())) {
+            if (!FUTURE_PARTITION.equals(name)) {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        }
+        return months;
+    }
+
+    record PartitionedTable(String name, String column, int retentionMonths, String columns) {
+    }
+}
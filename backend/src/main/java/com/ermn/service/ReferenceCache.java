@@ -0,0 +1,206 @@
+package com.ermn.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of read-model snapshots for rarely changing reference data, keyed by entity id,
+ * together with the id list of all entities. Snapshots are loaded in bulk, in a read-write
+ * transaction so that they always come from the primary database.
+ * <p>
+ * Every eviction advances a generation counter, immediately and again when the evicting
+ * transaction completes. A load only keeps what it cached if no eviction happened while it ran,
+ * so a snapshot read before an update commits is never cached after it. Loads that join a
+ * caller's transaction are returned but not cached, as they may see uncommitted changes.
+ * <p>
+ * Changes made through other instances are found by {@link #evictChanged()}, which polls for
+ * recently changed ids; entries also expire after a fixed time in case a change is missed.
+ */
+class ReferenceCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceCache.class);
+
+    private final Cache<Long, T> byId;
+    private final TransactionTemplate transactionTemplate;
+    private final Function<Collection<Long>, Map<Long, T>> loadByIds;
+    private final Supplier<Map<Long, T>> loadAll;
+    private final Function<LocalDateTime, Collection<Long>> loadChangedIds;
+    private final long ttlNanos;
+    private final Duration invalidationOverlap;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile IdList allIds;
+    private LocalDateTime syncedUpTo = LocalDateTime.now();
+
+    ReferenceCache(String name, long maxSize, Duration ttl, Duration invalidationOverlap, MeterRegistry meterRegistry,
+                   PlatformTransactionManager transactionManager, Function<Collection<Long>, Map<Long, T>> loadByIds,
+                   Supplier<Map<Long, T>> loadAll, Function<LocalDateTime, Collection<Long>> loadChangedIds) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadByIds = loadByIds;
+        this.loadAll = loadAll;
+        this.loadChangedIds = loadChangedIds;
+        this.ttlNanos = ttl.toNanos();
+        this.invalidationOverlap = invalidationOverlap;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, name);
+    }
+
+    Optional<T> get(Long id) {
+        T cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadGeneration = loadGeneration();
+        T loaded = transactionTemplate.execute(status -> loadByIds.apply(List.of(id))).get(id);
+        if (loaded != null && generation.get() == loadGeneration) {
+            byId.put(id, loaded);
+            undoIfEvicted(loadGeneration, List.of(id));
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    /**
+     * All entities in id order.
+     */
+    List<T> getAll() {
+        IdList idList = allIds;
+        if (idList == null || System.nanoTime() - idList.loadedAt() > ttlNanos) {
+            return loadAll();
+        }
+        List<Long> ids = idList.ids();
+        Map<Long, T> present = byId.getAllPresent(ids);
+        if (present.size() == ids.size()) {
+            return inOrder(ids, present);
+        }
+
+        // Some snapshots were dropped to stay within the size bound; reload those
+        long loadGeneration = loadGeneration();
+        List<Long> missing = ids.stream().filter(id -> !present.containsKey(id)).toList();
+        Map<Long, T> loaded = transactionTemplate.execute(status -> loadByIds.apply(missing));
+        if (generation.get() == loadGeneration) {
+            byId.putAll(loaded);
+            undoIfEvicted(loadGeneration, loaded.keySet());
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T value = present.containsKey(id) ? present.get(id) : loaded.get(id);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop an entity whose row or inventory changed, or that was just created. Called within
+     * the changing transaction; the entry is dropped again once the transaction completes.
+     */
+    void evict(Long id) {
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    private List<T> loadAll() {
+        long loadGeneration = loadGeneration();
+        Map<Long, T> loaded = transactionTemplate.execute(status -> loadAll.get());
+        List<Long> ids = loaded.keySet().stream().sorted().toList();
+        if (generation.get() == loadGeneration) {
+            byId.putAll(loaded);
+            allIds = new IdList(ids, System.nanoTime());
+            undoIfEvicted(loadGeneration, ids);
+        }
+        return inOrder(ids, loaded);
+    }
+
+    /**
+     * An eviction between the generation check and the put may have run before the put; it
+     * advanced the generation first, so checking again catches it.
+     */
+    private void undoIfEvicted(long loadGeneration, Collection<Long> ids) {
+        if (generation.get() != loadGeneration) {
+            byId.invalidateAll(ids);
+            allIds = null;
+        }
+    }
+
+    private long loadGeneration() {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? -1 : generation.get();
+    }
+
+    /**
+     * Evict entities changed through other instances since the previous sync. Each sync reaches
+     * back by the overlap, which covers clock differences between instances and transactions
+     * that committed after a later-stamped one; evicting an entity again only costs a reload.
+     */
+    void evictChanged() {
+        if (!syncLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Long id : loadChangedIds.apply(syncedUpTo.minus(invalidationOverlap))) {
+                invalidate(id);
+            }
+            syncedUpTo = now;
+        } catch (RuntimeException ex) {
+            log.warn("Could not sync reference cache invalidations: {}", ex.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void invalidate(Long id) {
+        generation.incrementAndGet();
+        IdList idList = allIds;
+        // Entities are never deleted, so the id list only goes stale when one is created
+        if (id == null || idList == null || Collections.binarySearch(idList.ids(), id) < 0) {
+            allIds = null;
+        }
+        if (id != null) {
+            byId.invalidate(id);
+        }
+    }
+
+    private record IdList(List<Long> ids, long loadedAt) {
+    }
+
+    private static <T> List<T> inOrder(List<Long> ids, Map<Long, T> values) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(values.get(id));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ermn.service;
+
+import com.ermn.exception.CustomException;
+import com.ermn.model.entity.RefreshToken;
+import com.ermn.model.entity.User;
+import com.ermn.repository.RefreshTokenRepository;
+import com.ermn.security.JwtTokenProvider;
+import com.ermn.security.RevokedTokenFamilies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Each token is recorded by id and may be exchanged exactly
+ * once; presenting an already rotated token means it was copied, so its whole family is revoked
+ * and every access and refresh token issued from the same login stops working.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenFamilies revokedTokenFamilies;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtTokenProvider tokenProvider,
+                               RevokedTokenFamilies revokedTokenFamilies) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenProvider = tokenProvider;
+        this.revokedTokenFamilies = revokedTokenFamilies;
+    }
+
+    @Transactional
+    public String issue(Authentication authentication, User user, UUID familyId) {
+        Date expiresAt = tokenProvider.refreshExpiryFromNow();
+        RefreshToken token = refreshTokenRepository.save(RefreshToken.builder()
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(toLocalDateTime(expiresAt))
+                .build());
+        return tokenProvider.generateRefreshToken(authentication, token.getId(), familyId, expiresAt);
+    }
+
+    /**
+     * Consume a refresh token so it cannot be exchanged again. A token that was already rotated
+     * revokes its family; the revocation is committed even though the request fails.
+     */
+    @Transactional(noRollbackFor = CustomException.class)
+    public void rotate(UUID tokenId, UUID familyId) {
+        if (revokedTokenFamilies.isRevoked(familyId)) {
+            throw new CustomException("Refresh token has been revoked");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshTokenRepository.markRotated(tokenId, now) == 1) {
+            return;
+        }
+
+        RefreshToken token = refreshTokenRepository.findById(tokenId)
+                .orElseThrow(() -> new CustomException("Invalid or expired refresh token"));
+        if (token.getRotatedAt() != null && token.getRevokedAt() == null) {
+            log.warn("Refresh token reuse detected for family {}, revoking it", token.getFamilyId());
+            revokeFamily(token.getFamilyId());
+            throw new CustomException("Refresh token reuse detected, please sign in again");
+        }
+        throw new CustomException(token.getRevokedAt() != null
+                ? "Refresh token has been revoked"
+                : "Invalid or expired refresh token");
+    }
+
+    @Transactional
+    public void revokeFamily(UUID familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        // Covers every access token of the family, none outlives the newest refresh token
+        LocalDateTime expiresAt = toLocalDateTime(tokenProvider.refreshExpiryFromNow());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokedTokenFamilies.revoke(familyId, expiresAt);
+                }
+            });
+        } else {
+            revokedTokenFamilies.revoke(familyId, expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ermn.refresh-tokens.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,184 @@
+package com.ermn.service;
+
+import com.ermn.model.dto.response.ResponseTimePercentiles;
+import com.ermn.model.entity.ResponseTimeSketch;
+import com.ermn.model.enums.ResponseTimeMetric;
+import com.ermn.repository.ResponseTimeSketchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Keeps per-hour HdrHistogram sketches of booking response times. Samples are recorded
+ * into lock-free {@link Recorder}s and periodically merged into {@code response_time_sketches},
+ * so only a few kilobytes per metric and hour are ever persisted.
+ */
+@Service
+public class ResponseTimeSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseTimeSketchService.class);
+
+    private static final long HIGHEST_TRACKABLE_MILLIS = Duration.ofDays(7).toMillis();
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final ResponseTimeSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ResponseTimeMetric, Timer> timers = new EnumMap<>(ResponseTimeMetric.class);
+    private final Map<SketchKey, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<SketchKey, Histogram> unflushed = new ConcurrentHashMap<>();
+
+    public ResponseTimeSketchService(ResponseTimeSketchRepository sketchRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (ResponseTimeMetric metric : ResponseTimeMetric.values()) {
+            timers.put(metric, Timer.builder("ermn.booking.response.time")
+                    .description("Booking response times by phase")
+                    .tag("phase", metric.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.9, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record the time from {@code from} to {@code to} for a metric. Inside a transaction the
+     * sample is only recorded once the transaction commits, so rolled back transitions are not counted.
+     */
+    public void record(ResponseTimeMetric metric, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return;
+        }
+        long millis = Math.max(0, Duration.between(from, to).toMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordNow(metric, millis);
+                }
+            });
+        } else {
+            recordNow(metric, millis);
+        }
+    }
+
+    public ResponseTimePercentiles getPercentiles(ResponseTimeMetric metric, LocalDateTime startDate) {
+        Histogram merged = newHistogram();
+        for (ResponseTimeSketch sketch : sketchRepository.findByMetricAndBucketStartGreaterThanEqual(metric, startDate)) {
+            merged.add(decode(sketch.getHistogram()));
+        }
+        return ResponseTimePercentiles.builder()
+                .p50Seconds(toSeconds(merged, 50.0))
+                .p90Seconds(toSeconds(merged, 90.0))
+                .p99Seconds(toSeconds(merged, 99.0))
+                .sampleCount(merged.getTotalCount())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${ermn.sketches.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDateTime previousBucket = currentBucket().minusHours(1);
+        Iterator<Map.Entry<SketchKey, Recorder>> it = recorders.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<SketchKey, Recorder> entry = it.next();
+            if (entry.getKey().bucketStart().isBefore(previousBucket)) {
+                it.remove();
+            }
+            Histogram interval = entry.getValue().getIntervalHistogram();
+            if (interval.getTotalCount() > 0) {
+                unflushed.merge(entry.getKey(), interval, (pending, delta) -> {
+                    pending.add(delta);
+                    return pending;
+                });
+            }
+        }
+
+        for (Map.Entry<SketchKey, Histogram> entry : unflushed.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(entry.getKey(), entry.getValue()));
+                unflushed.remove(entry.getKey(), entry.getValue());
+            } catch (RuntimeException ex) {
+                // Kept in memory and merged again on the next flush
+                log.warn("Could not persist response time sketch {}: {}", entry.getKey(), ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void recordNow(ResponseTimeMetric metric, long millis) {
+        timers.get(metric).record(Duration.ofMillis(millis));
+        recorders.computeIfAbsent(new SketchKey(currentBucket(), metric),
+                        key -> new Recorder(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS))
+                .recordValue(Math.min(millis, HIGHEST_TRACKABLE_MILLIS));
+    }
+
+    private void persist(SketchKey key, Histogram delta) {
+        ResponseTimeSketch sketch = sketchRepository.findForUpdate(key.bucketStart(), key.metric())
+                .orElseGet(() -> ResponseTimeSketch.builder()
+                        .bucketStart(key.bucketStart())
+                        .metric(key.metric())
+                        .build());
+        Histogram merged = sketch.getHistogram() != null ? decode(sketch.getHistogram()) : newHistogram();
+        merged.add(delta);
+        sketch.setHistogram(encode(merged));
+        sketch.setSampleCount(merged.getTotalCount());
+        sketchRepository.save(sketch);
+    }
+
+    private LocalDateTime currentBucket() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS);
+    }
+
+    private Double toSeconds(Histogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return null;
+        }
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private Histogram decode(byte[] bytes) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), HIGHEST_TRACKABLE_MILLIS);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt response time sketch", ex);
+        }
+    }
+
+    private record SketchKey(LocalDateTime bucketStart, ResponseTimeMetric metric) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.User;
+import com.ermn.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves users by email or id without a database round trip on every call. The user behind
+ * the current request is resolved once and kept as a request attribute; other lookups go through
+ * a bounded, expiring cache keyed by id, with a second cache mapping emails to ids.
+ * Returned users are detached copies, safe to use as association targets or query parameters.
+ * <p>
+ * Changes made through this instance are evicted when they commit. Changes made through other
+ * instances, such as a deactivation, are evicted by a sync that re-reads recently updated users
+ * every {@code ermn.user-cache.invalidation-sync-interval-ms}.
+ */
+@Service
+public class UserCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheService.class);
+    private static final String REQUEST_ATTRIBUTE = UserCacheService.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> userIdsByEmail;
+    private final Duration invalidationOverlap;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private LocalDateTime syncedUpTo = LocalDateTime.now();
+
+    public UserCacheService(UserRepository userRepository, MeterRegistry meterRegistry,
+                            @Value("${ermn.user-cache.max-size:10000}") long maxSize,
+                            @Value("${ermn.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${ermn.user-cache.invalidation-overlap:10s}") Duration invalidationOverlap) {
+        this.userRepository = userRepository;
+        this.invalidationOverlap = invalidationOverlap;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "userIdsByEmail");
+        Gauge.builder("ermn.user.cache.hit.ratio", usersById, cache -> cache.stats().hitRate())
+                .description("Share of user lookups served from the user cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        User current = currentRequestUser();
+        if (current != null && email.equals(current.getEmail())) {
+            return Optional.of(copyOf(current));
+        }
+
+        Long id = userIdsByEmail.getIfPresent(email);
+        User user = id != null ? usersById.getIfPresent(id) : null;
+        if (user == null) {
+            user = userRepository.findByEmail(email).map(this::put).orElse(null);
+        }
+        return Optional.ofNullable(user).map(this::resolvedForRequest);
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User current = currentRequestUser();
+        if (current != null && id.equals(current.getId())) {
+            return Optional.of(copyOf(current));
+        }
+
+        User user = usersById.getIfPresent(id);
+        if (user == null) {
+            user = userRepository.findById(id).map(this::put).orElse(null);
+        }
+        return Optional.ofNullable(user).map(UserCacheService::copyOf);
+    }
+
+    /**
+     * Drop a changed user from the cache. Called again after the surrounding transaction
+     * commits, so a concurrent lookup cannot re-cache the pre-commit row.
+     */
+    public void evict(User user) {
+        invalidate(user.getId(), user.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long id = user.getId();
+            String email = user.getEmail();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id, email);
+                }
+            });
+        }
+        User current = currentRequestUser();
+        if (current != null && Objects.equals(current.getId(), user.getId())) {
+            RequestContextHolder.getRequestAttributes().removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Evict users changed through other instances since the previous sync. Each sync reaches back
+     * by the overlap, which covers clock differences between instances and transactions that
+     * committed after a later-stamped one; evicting a user again only costs a reload.
+     */
+    @Scheduled(initialDelayString = "${ermn.user-cache.invalidation-sync-interval-ms:1000}",
+               fixedDelayString = "${ermn.user-cache.invalidation-sync-interval-ms:1000}")
+    public void evictChangedUsers() {
+        if (!syncLock.tryLock()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Object[] row : userRepository.findIdsAndEmailsUpdatedSince(syncedUpTo.minus(invalidationOverlap))) {
+                invalidate((Long) row[0], (String) row[1]);
+            }
+            syncedUpTo = now;
+        } catch (RuntimeException ex) {
+            log.warn("Could not sync user cache invalidations: {}", ex.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void invalidate(Long id, String email) {
+        if (id != null) {
+            usersById.invalidate(id);
+        }
+        if (email != null) {
+            userIdsByEmail.invalidate(email);
+        }
+    }
+
+    private User put(User user) {
+        User snapshot = copyOf(user);
+        usersById.put(snapshot.getId(), snapshot);
+        userIdsByEmail.put(snapshot.getEmail(), snapshot.getId());
+        return snapshot;
+    }
+
+    private User resolvedForRequest(User cached) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, copyOf(cached), RequestAttributes.SCOPE_REQUEST);
+        }
+        return copyOf(cached);
+    }
+
+    private User currentRequestUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                ? (User) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .fullName(user.getFullName())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .isActive(user.getIsActive())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,456 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over user names, emails and phone numbers for the admin user search.
+ * Every user occupies a slot; terms map to sorted slot postings and role and active flags are
+ * kept as bitmaps, so a search is a few bitmap operations followed by a keyset scan by slot.
+ * The index is rebuilt on startup and updated after every committed user change on this instance;
+ * a periodic catch-up picks up users registered or changed through other instances.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final int LOCAL_PHONE_DIGITS = 10;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("[+()\\-\\d]*\\d[+()\\-\\d]*");
+
+    private final UserRepository userRepository;
+    private final Duration refreshOverlap;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private State state = new State();
+    private List<Entry> pendingDuringRebuild;
+    private LocalDateTime refreshedUpTo;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           @Value("${ermn.user-search.refresh-overlap:1m}") Duration refreshOverlap) {
+        this.userRepository = userRepository;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    public record SearchResult(List<Long> userIds, Long nextCursor, Long total) {
+    }
+
+    /**
+     * Find users whose name, email or phone has a term starting with every word of {@code query},
+     * in slot (registration) order after the user id {@code after}. The total is only counted
+     * when asked for, since it may need a full pass over the matches.
+     */
+    public SearchResult search(String query, Role role, Boolean active, Long after, int limit, boolean includeTotal) {
+        List<String> prefixes = queryPrefixes(query);
+        lock.readLock().lock();
+        try {
+            State current = state;
+            BitSet candidates = new BitSet(current.size);
+            if (role == null) {
+                candidates.set(0, current.size);
+            } else if (current.roles.containsKey(role)) {
+                candidates.or(current.roles.get(role));
+            }
+            if (active != null) {
+                if (active) {
+                    candidates.and(current.active);
+                } else {
+                    candidates.andNot(current.active);
+                }
+            }
+
+            // Selective prefixes narrow the candidate bitmap up front; prefixes shared by a large
+            // share of users are cheaper to check against each candidate during the scan. A total
+            // needs every match anyway, so more postings are worth materialising for it.
+            int maxPostings = Math.max(1024, includeTotal ? current.size / 4 : current.size / 64);
+            List<String> densePrefixes = new ArrayList<>();
+            for (String prefix : prefixes) {
+                BitSet matches = current.sparseMatches(prefix, maxPostings);
+                if (matches == null) {
+                    densePrefixes.add(prefix);
+                } else {
+                    candidates.and(matches);
+                }
+            }
+
+            List<Long> userIds = new ArrayList<>(limit);
+            int slot = candidates.nextSetBit(after == null ? 0 : current.slotAfter(after));
+            for (; slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (current.matchesAll(slot, densePrefixes)) {
+                    if (userIds.size() == limit) {
+                        break;
+                    }
+                    userIds.add(current.ids[slot]);
+                }
+            }
+            Long nextCursor = slot >= 0 ? userIds.get(userIds.size() - 1) : null;
+
+            Long total = null;
+            if (includeTotal) {
+                total = densePrefixes.isEmpty() ? (long) candidates.cardinality()
+                        : current.countMatches(candidates, densePrefixes);
+            }
+            return new SearchResult(userIds, nextCursor, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or refresh a user in the index. Inside a transaction the change is applied once it
+     * commits, so users from rolled back registrations never become searchable.
+     */
+    public void index(User user) {
+        Entry entry = entryOf(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry);
+                }
+            });
+        } else {
+            apply(entry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            LocalDateTime started = LocalDateTime.now();
+            State rebuilt = new State();
+            long afterId = 0;
+            List<User> batch;
+            do {
+                batch = userRepository.findBatchAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (User user : batch) {
+                    rebuilt.upsert(entryOf(user));
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                // Changes committed while the rebuild was reading are replayed on top of it
+                pendingDuringRebuild.forEach(rebuilt::upsert);
+                pendingDuringRebuild = null;
+                state = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            refreshedUpTo = started;
+            log.info("Indexed {} users for admin search", rebuilt.size);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Re-index the users changed since the previous refresh, including those registered or updated
+     * through other instances. Each pass reaches back by the overlap, so rows whose transaction
+     * committed after a later-stamped one are not missed; indexing a user again is harmless.
+     */
+    @Scheduled(fixedDelayString = "${ermn.user-search.refresh-interval-ms:30000}",
+               initialDelayString = "${ermn.user-search.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            if (refreshedUpTo == null) {
+                return;
+            }
+            LocalDateTime started = LocalDateTime.now();
+            LocalDateTime since = refreshedUpTo.minus(refreshOverlap);
+            long afterId = 0;
+            int changed = 0;
+            List<User> batch;
+            do {
+                batch = userRepository.findUpdatedBatchAfter(since, afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (User user : batch) {
+                    apply(entryOf(user));
+                }
+                changed += batch.size();
+                if (!batch.isEmpty()) {
+                    since = batch.get(batch.size() - 1).getUpdatedAt();
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            refreshedUpTo = started;
+            log.debug("Re-indexed {} changed users for admin search", changed);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void apply(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(entry);
+            }
+            state.upsert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Entry entryOf(User user) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (user.getFullName() != null) {
+            for (String word : WHITESPACE.split(normalize(user.getFullName()))) {
+                addTerm(terms, word);
+                for (String part : NON_ALPHANUMERIC.split(word)) {
+                    addTerm(terms, part);
+                }
+            }
+        }
+        if (user.getEmail() != null) {
+            String email = normalize(user.getEmail());
+            addTerm(terms, email);
+            for (String part : NON_ALPHANUMERIC.split(email)) {
+                addTerm(terms, part);
+            }
+        }
+        if (user.getPhone() != null) {
+            String digits = NON_DIGIT.matcher(user.getPhone()).replaceAll("");
+            addTerm(terms, digits);
+            if (digits.length() > LOCAL_PHONE_DIGITS) {
+                // Also match numbers typed without their country code
+                addTerm(terms, digits.substring(digits.length() - LOCAL_PHONE_DIGITS));
+            }
+        }
+        return new Entry(user.getId(), terms.toArray(new String[0]), user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    private List<String> queryPrefixes(String query) {
+        List<String> prefixes = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return prefixes;
+        }
+        for (String word : WHITESPACE.split(normalize(query))) {
+            if (PHONE_LIKE.matcher(word).matches()) {
+                word = NON_DIGIT.matcher(word).replaceAll("");
+            }
+            if (!word.isEmpty()) {
+                prefixes.add(word);
+            }
+        }
+        return prefixes;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void addTerm(Set<String> terms, String term) {
+        if (!term.isEmpty()) {
+            terms.add(term);
+        }
+    }
+
+    private record Entry(long id, String[] terms, Role role, boolean active) {
+    }
+
+    /**
+     * Sorted slot numbers of the users carrying one term.
+     */
+    private static final class Postings {
+        private int[] slots = new int[1];
+        private int size;
+
+        void add(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    private static final class State {
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Role, BitSet> roles = new EnumMap<>(Role.class);
+        private final BitSet active = new BitSet();
+        private long[] ids = new long[1024];
+        private String[][] slotTerms = new String[1024][];
+        // Slots ordered by user id. Users committed out of id order, or caught up from other
+        // instances, take the next slot but are inserted here at their id's position
+        private int[] slotsById = new int[1024];
+        private int size;
+
+        void upsert(Entry entry) {
+            int index = indexOf(entry.id());
+            int slot;
+            if (index < 0) {
+                slot = size++;
+                if (slot == ids.length) {
+                    ids = Arrays.copyOf(ids, slot * 2);
+                    slotTerms = Arrays.copyOf(slotTerms, slot * 2);
+                    slotsById = Arrays.copyOf(slotsById, slot * 2);
+                }
+                ids[slot] = entry.id();
+                index = -index - 1;
+                System.arraycopy(slotsById, index, slotsById, index + 1, slot - index);
+                slotsById[index] = slot;
+            } else {
+                slot = slotsById[index];
+                for (String term : slotTerms[slot]) {
+                    Postings postings = terms.get(term);
+                    postings.remove(slot);
+                    if (postings.size == 0) {
+                        terms.remove(term);
+                    }
+                }
+                for (BitSet roleSlots : roles.values()) {
+                    roleSlots.clear(slot);
+                }
+            }
+            slotTerms[slot] = entry.terms();
+            for (String term : entry.terms()) {
+                terms.computeIfAbsent(term, key -> new Postings()).add(slot);
+            }
+            if (entry.role() != null) {
+                roles.computeIfAbsent(entry.role(), key -> new BitSet()).set(slot);
+            }
+            active.set(slot, entry.active());
+        }
+
+        /**
+         * Slots of all users with a term starting with {@code prefix}, or null when the prefix
+         * has more than {@code maxPostings} postings.
+         */
+        BitSet sparseMatches(String prefix, int maxPostings) {
+            // One pass over the term range, which for a short prefix spans a large part of the
+            // tree; a dense prefix gives up after setting at most maxPostings bits
+            BitSet matches = new BitSet(size);
+            int postingCount = 0;
+            for (Postings postings : terms.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                postingCount += postings.size;
+                if (postingCount > maxPostings) {
+                    return null;
+                }
+                for (int i = 0; i < postings.size; i++) {
+                    matches.set(postings.slots[i]);
+                }
+            }
+            return matches;
+        }
+
+        boolean matchesAll(int slot, List<String> prefixes) {
+            for (String prefix : prefixes) {
+                boolean matched = false;
+                for (String term : slotTerms[slot]) {
+                    if (term.startsWith(prefix)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long countMatches(BitSet candidates, List<String> prefixes) {
+            long count = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (matchesAll(slot, prefixes)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Position of {@code id} in {@link #slotsById}, or {@code -(insertion point) - 1}.
+         */
+        int indexOf(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midId = ids[slotsById[mid]];
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * First slot to scan for the page after the user {@code id}. A cursor is a user id from a
+         * previous page, so it is normally indexed; otherwise the scan resumes at the slot of the
+         * next larger id.
+         */
+        int slotAfter(long id) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                return slotsById[index] + 1;
+            }
+            index = -index - 1;
+            return index < size ? slotsById[index] : size;
+        }
+    }
+}
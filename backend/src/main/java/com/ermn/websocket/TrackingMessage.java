@@ -1,11 +1,11 @@
 package com.ermn.websocket;
 
+import com.ermn.model.geo.Coordinate;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -14,8 +14,8 @@ import java.time.LocalDateTime;
 @Builder
 public class TrackingMessage {
     private Long bookingId;
-    private BigDecimal latitude;
-    private BigDecimal longitude;
+    private Coordinate latitude;
+    private Coordinate longitude;
     private LocalDateTime timestamp;
     private Double speed;
     private Double heading;
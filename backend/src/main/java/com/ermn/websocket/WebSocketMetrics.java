@@ -0,0 +1,76 @@
+package com.ermn.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connected STOMP sessions, and broker fan-out: messages published to {@code /topic} destinations
+ * against messages delivered to subscribers. The fan-out per published message is
+ * {@code rate(ermn.websocket.messages.delivered) / rate(ermn.websocket.messages.published)}.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final Counter published;
+    private final Counter delivered;
+
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("ermn.websocket.sessions", sessions, Set::size)
+                .description("Connected STOMP sessions")
+                .register(meterRegistry);
+        this.published = Counter.builder("ermn.websocket.messages.published")
+                .description("Messages published to the broker by the application")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("ermn.websocket.messages.delivered")
+                .description("Messages sent by the broker to subscribed sessions")
+                .register(meterRegistry);
+    }
+
+    public ChannelInterceptor brokerChannelInterceptor() {
+        return countMessages(published);
+    }
+
+    public ChannelInterceptor clientOutboundChannelInterceptor() {
+        return countMessages(delivered);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    // May be published more than once per session, hence the set
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    private static ChannelInterceptor countMessages(Counter counter) {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                    counter.increment();
+                }
+                return message;
+            }
+        };
+    }
+}
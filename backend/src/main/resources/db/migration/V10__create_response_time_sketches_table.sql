@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS response_time_sketches (
+    bucket_start TIMESTAMP NOT NULL,
+    metric ENUM('DISPATCH', 'ARRIVAL', 'TRIP') NOT NULL,
+    histogram VARBINARY(8192) NOT NULL,
+    sample_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket_start, metric),
+    INDEX idx_metric_bucket (metric, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS replication_heartbeats (
+    instance_id VARCHAR(64) PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,17 @@
+-- Spatial copies of the DECIMAL coordinate pairs, maintained by MySQL from those columns so that
+-- every existing write keeps them in sync. SPATIAL INDEX requires NOT NULL, so ambulances without
+-- a reported location get POINT(0 0); location queries also check current_latitude IS NOT NULL.
+ALTER TABLE ambulances
+    ADD COLUMN location POINT SRID 4326
+        GENERATED ALWAYS AS (ST_SRID(POINT(COALESCE(current_longitude, 0), COALESCE(current_latitude, 0)), 4326)) STORED NOT NULL,
+    ADD SPATIAL INDEX idx_location_point (location);
+
+ALTER TABLE hospitals
+    ADD COLUMN location POINT SRID 4326
+        GENERATED ALWAYS AS (ST_SRID(POINT(longitude, latitude), 4326)) STORED NOT NULL,
+    ADD SPATIAL INDEX idx_location_point (location);
+
+ALTER TABLE blood_banks
+    ADD COLUMN location POINT SRID 4326
+        GENERATED ALWAYS AS (ST_SRID(POINT(longitude, latitude), 4326)) STORED NOT NULL,
+    ADD SPATIAL INDEX idx_location_point (location);
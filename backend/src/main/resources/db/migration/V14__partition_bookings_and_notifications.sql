@@ -0,0 +1,35 @@
+-- Monthly RANGE partitions on requested_at / created_at. Partitioned InnoDB tables cannot have
+-- foreign keys, and every unique key must include the partitioning column, so the foreign keys
+-- are dropped (their indexes stay) and the primary keys become (id, <partitioning column>).
+-- Everything starts in the catch-all p_future partition; PartitionMaintenanceService splits it
+-- into monthly partitions when the application starts.
+ALTER TABLE bookings
+    DROP FOREIGN KEY bookings_ibfk_1,
+    DROP FOREIGN KEY bookings_ibfk_2;
+
+UPDATE bookings SET requested_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE requested_at IS NULL;
+
+ALTER TABLE bookings
+    MODIFY requested_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, requested_at);
+
+ALTER TABLE bookings
+    PARTITION BY RANGE (UNIX_TIMESTAMP(requested_at)) (
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
+
+ALTER TABLE notifications
+    DROP FOREIGN KEY notifications_ibfk_1;
+
+UPDATE notifications SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+ALTER TABLE notifications
+    MODIFY created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE notifications
+    PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+        PARTITION p_future VALUES LESS THAN MAXVALUE
+    );
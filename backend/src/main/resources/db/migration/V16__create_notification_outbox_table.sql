@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NULL,
+    recipient_role ENUM('CITIZEN', 'AMBULANCE_DRIVER', 'HOSPITAL_ADMIN', 'BLOOD_BANK_ADMIN', 'SUPER_ADMIN') NULL,
+    type ENUM('BOOKING_UPDATE', 'BLOOD_SHORTAGE', 'SYSTEM_ALERT') NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(512) NULL,
+    available_at TIMESTAMP(3) NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_available_at (available_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- Role-wide notifications select the active users of a role. (role, is_active) answers that from
+-- the index alone (InnoDB secondary indexes carry the primary key) and covers every query that
+-- used idx_role, so idx_role is dropped.
+ALTER TABLE users
+    ADD INDEX idx_role_active (role, is_active),
+    DROP INDEX idx_role;
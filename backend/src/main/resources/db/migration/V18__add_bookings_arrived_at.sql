@@ -0,0 +1,8 @@
+-- When the ambulance first reached the pickup point. Arrival response times are measured from it,
+-- so a booking that moves back and forth between statuses is counted once and the samples can be
+-- rebuilt from the table.
+ALTER TABLE bookings
+    ADD COLUMN arrived_at TIMESTAMP NULL AFTER assigned_at;
+
+ALTER TABLE bookings_archive
+    ADD COLUMN arrived_at TIMESTAMP NULL AFTER assigned_at;
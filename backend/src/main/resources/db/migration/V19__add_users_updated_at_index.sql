@@ -0,0 +1,3 @@
+-- The admin search index periodically re-reads the users changed since its previous refresh
+ALTER TABLE users
+    ADD INDEX idx_updated_at (updated_at, id);
@@ -0,0 +1,15 @@
+-- Instances evict their cached hospitals and blood banks when a row or its inventory changes
+-- through another instance, found by polling these timestamps
+ALTER TABLE hospitals
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_updated_at (updated_at);
+
+ALTER TABLE blood_banks
+    ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_updated_at (updated_at);
+
+ALTER TABLE bed_inventory
+    ADD INDEX idx_last_updated (last_updated);
+
+ALTER TABLE blood_inventory
+    ADD INDEX idx_last_updated (last_updated);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS booking_rollups (
+    bucket_start TIMESTAMP NOT NULL,
+    status ENUM('REQUESTED', 'ASSIGNED', 'EN_ROUTE', 'ARRIVED', 'COMPLETED', 'CANCELLED') NOT NULL,
+    region_key VARCHAR(32) NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    response_time_sum BIGINT NOT NULL DEFAULT 0,
+    response_time_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_start, status, region_key),
+    INDEX idx_status_bucket (status, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,123 @@
+package com.ermn.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result ({@code -rf json}) with a checked-in baseline and exits with status
+ * 1 if any benchmark got slower, or allocates more per operation, than the threshold allows. A
+ * slowdown also has to exceed the measurement error of both runs.
+ * Benchmarks are matched by name and parameters; ones missing on either side are listed but do
+ * not fail the comparison.
+ * <pre>
+ * BaselineComparison &lt;result.json&gt; &lt;baseline.json&gt; [threshold, default 0.10]
+ * </pre>
+ * Scores only compare meaningfully between runs on the same machine and JDK, so baselines are
+ * recorded on the machine that runs the comparison.
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Allocation differences below this are noise from escape analysis and alignment
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <result.json> <baseline.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonNode> results = read(Path.of(args[0]));
+        Map<String, JsonNode> baseline = read(Path.of(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-70s %12s %12s %8s %12s %12s%n",
+                "benchmark", "baseline", "current", "change", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode previous = baseline.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf("%-70s %12s%n", entry.getKey(), "new");
+                continue;
+            }
+            JsonNode current = entry.getValue();
+            double before = score(previous, "score");
+            double now = score(current, "score");
+            boolean higherIsBetter = "thrpt".equals(current.path("mode").asText());
+            double change = before == 0 ? 0 : (now - before) / before;
+            double slowdown = higherIsBetter ? -change : change;
+            Double allocationBefore = allocation(previous);
+            Double allocationNow = allocation(current);
+
+            System.out.printf("%-70s %12.3f %12.3f %+7.1f%% %12s %12s %s%n", entry.getKey(), before, now,
+                    change * 100, format(allocationBefore), format(allocationNow),
+                    current.path("primaryMetric").path("scoreUnit").asText());
+            // Differences within the combined 99.9% confidence intervals are not regressions
+            double noise = score(previous, "scoreError") + score(current, "scoreError");
+            if (slowdown > threshold && Math.abs(now - before) > noise) {
+                regressions.add(String.format("%s: %+.1f%% %s", entry.getKey(), change * 100,
+                        current.path("primaryMetric").path("scoreUnit").asText()));
+            }
+            if (allocationBefore != null && allocationNow != null
+                    && allocationNow > allocationBefore * (1 + threshold) + ALLOCATION_SLACK_BYTES) {
+                regressions.add(String.format("%s: allocates %.0f B/op, baseline %.0f B/op",
+                        entry.getKey(), allocationNow, allocationBefore));
+            }
+        }
+        baseline.keySet().stream()
+                .filter(key -> !results.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %12s%n", key, "not run"));
+
+        if (regressions.isEmpty()) {
+            System.out.printf("%nNo regressions beyond %.0f%%%n", threshold * 100);
+            return;
+        }
+        System.out.printf("%n%d regression(s) beyond %.0f%%:%n", regressions.size(), threshold * 100);
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        System.exit(1);
+    }
+
+    private static Map<String, JsonNode> read(Path file) throws IOException {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            fields.forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String benchmark = result.path("benchmark").asText().replace("com.ermn.benchmark.", "");
+            byKey.put(params.isEmpty() ? benchmark : benchmark + params, result);
+        }
+        return byKey;
+    }
+
+    private static double score(JsonNode result, String field) {
+        double value = result.path("primaryMetric").path(field).asDouble();
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    private static Double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            // Older JMH versions prefix profiler metrics with a middle dot
+            if (metric.getKey().replace("·", "").equals(ALLOCATION)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+
+    private static String format(Double bytes) {
+        return bytes == null ? "-" : String.format("%.0f", bytes);
+    }
+}
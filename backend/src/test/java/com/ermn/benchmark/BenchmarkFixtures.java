@@ -0,0 +1,210 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.entity.Ambulance;
+import com.ermn.model.entity.BedInventory;
+import com.ermn.model.entity.BloodBank;
+import com.ermn.model.entity.BloodInventory;
+import com.ermn.model.entity.Booking;
+import com.ermn.model.entity.Hospital;
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.BedType;
+import com.ermn.model.enums.BloodGroup;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.Role;
+import com.ermn.model.geo.Coordinate;
+import com.ermn.repository.AmbulanceRepository;
+import com.ermn.repository.BedInventoryRepository;
+import com.ermn.repository.BloodBankRepository;
+import com.ermn.repository.BloodInventoryRepository;
+import com.ermn.repository.BookingRepository;
+import com.ermn.repository.HospitalRepository;
+import com.ermn.service.BloodBankService;
+import com.ermn.service.BookingRollupService;
+import com.ermn.service.BookingService;
+import com.ermn.service.HospitalService;
+import com.ermn.service.LocationService;
+import com.ermn.service.NotificationOutboxService;
+import com.ermn.service.ResponseTimeSketchService;
+import com.ermn.service.UserCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic entities shaped like production data, around a pickup in Bengaluru: coordinates
+ * at full precision, full bed and blood inventories, and bookings with every timestamp set.
+ */
+final class BenchmarkFixtures {
+
+    static final Coordinate PICKUP_LATITUDE = Coordinate.ofDegrees(12.9716);
+    static final Coordinate PICKUP_LONGITUDE = Coordinate.ofDegrees(77.5946);
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 15, 10, 30, 12, 345_000_000);
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Ambulance> ambulances(int count, double spreadDegrees) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Ambulance> ambulances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ambulances.add(ambulance(random, i + 1, spreadDegrees));
+        }
+        return ambulances;
+    }
+
+    static Map<Hospital, List<BedInventory>> hospitals(int count) {
+        SplittableRandom random = new SplittableRandom(43);
+        User admin = user(1, Role.HOSPITAL_ADMIN);
+        Map<Hospital, List<BedInventory>> hospitals = new LinkedHashMap<>();
+        long inventoryId = 1;
+        for (int i = 0; i < count; i++) {
+            Hospital hospital = Hospital.builder()
+                    .id((long) i + 1)
+                    .name("City General Hospital " + (i + 1))
+                    .address("Ward " + (i % 200 + 1) + ", MG Road, Bengaluru")
+                    .latitude(coordinate(random, PICKUP_LATITUDE, 2))
+                    .longitude(coordinate(random, PICKUP_LONGITUDE, 2))
+                    .phone("080" + (10_000_000 + random.nextInt(90_000_000)))
+                    .admin(admin)
+                    .createdAt(NOW.minusDays(random.nextInt(365)))
+                    .build();
+            List<BedInventory> beds = new ArrayList<>();
+            for (BedType type : BedType.values()) {
+                beds.add(BedInventory.builder()
+                        .id(inventoryId++)
+                        .hospital(hospital)
+                        .bedType(type)
+                        .totalCapacity(50)
+                        .availableCount(random.nextInt(51))
+                        .lastUpdated(NOW.minusMinutes(random.nextInt(600)))
+                        .build());
+            }
+            hospitals.put(hospital, beds);
+        }
+        return hospitals;
+    }
+
+    static Map<BloodBank, List<BloodInventory>> bloodBanks(int count) {
+        SplittableRandom random = new SplittableRandom(44);
+        User admin = user(2, Role.BLOOD_BANK_ADMIN);
+        Map<BloodBank, List<BloodInventory>> bloodBanks = new LinkedHashMap<>();
+        long inventoryId = 1;
+        for (int i = 0; i < count; i++) {
+            BloodBank bloodBank = BloodBank.builder()
+                    .id((long) i + 1)
+                    .name("Red Cross Blood Bank " + (i + 1))
+                    .address("Ward " + (i % 200 + 1) + ", Jayanagar, Bengaluru")
+                    .latitude(coordinate(random, PICKUP_LATITUDE, 2))
+                    .longitude(coordinate(random, PICKUP_LONGITUDE, 2))
+                    .phone("080" + (10_000_000 + random.nextInt(90_000_000)))
+                    .admin(admin)
+                    .createdAt(NOW.minusDays(random.nextInt(365)))
+                    .build();
+            List<BloodInventory> inventories = new ArrayList<>();
+            for (BloodGroup group : BloodGroup.values()) {
+                int units = random.nextInt(4) == 0 ? 0 : random.nextInt(60);
+                inventories.add(BloodInventory.builder()
+                        .id(inventoryId++)
+                        .bloodBank(bloodBank)
+                        .bloodGroup(group)
+                        .quantityUnits(units)
+                        .minimumThreshold(10)
+                        .isEmergencyShortage(units < 10)
+                        .lastUpdated(NOW.minusMinutes(random.nextInt(600)))
+                        .build());
+            }
+            bloodBanks.put(bloodBank, inventories);
+        }
+        return bloodBanks;
+    }
+
+    /**
+     * A citizen's booking history: completed trips, each with its ambulance.
+     */
+    static List<Booking> bookings(int count) {
+        SplittableRandom random = new SplittableRandom(45);
+        User citizen = user(3, Role.CITIZEN);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime requestedAt = NOW.minusHours(random.nextInt(24 * 365)).minusSeconds(random.nextInt(3600));
+            LocalDateTime assignedAt = requestedAt.plusSeconds(30 + random.nextInt(300));
+            bookings.add(Booking.builder()
+                    .id((long) i + 1)
+                    .citizen(citizen)
+                    .ambulance(ambulance(random, i + 1, 0.2))
+                    .pickupLatitude(coordinate(random, PICKUP_LATITUDE, 0.2))
+                    .pickupLongitude(coordinate(random, PICKUP_LONGITUDE, 0.2))
+                    .destinationLatitude(coordinate(random, PICKUP_LATITUDE, 0.2))
+                    .destinationLongitude(coordinate(random, PICKUP_LONGITUDE, 0.2))
+                    .status(BookingStatus.COMPLETED)
+                    .requestedAt(requestedAt)
+                    .assignedAt(assignedAt)
+                    .completedAt(assignedAt.plusMinutes(15 + random.nextInt(60)))
+                    .createdAt(requestedAt)
+                    .build());
+        }
+        return bookings;
+    }
+
+    /**
+     * Services with mocked collaborators, for benchmarks that only call their mapping methods.
+     */
+    static BookingService bookingService() {
+        return new BookingService(Mockito.mock(BookingRepository.class), Mockito.mock(AmbulanceRepository.class),
+                Mockito.mock(UserCacheService.class), new LocationService(),
+                Mockito.mock(NotificationOutboxService.class), Mockito.mock(BookingRollupService.class),
+                Mockito.mock(ResponseTimeSketchService.class), new SimpleMeterRegistry());
+    }
+
+    static HospitalService hospitalService(long cacheSize) {
+        return new HospitalService(Mockito.mock(HospitalRepository.class), Mockito.mock(BedInventoryRepository.class),
+                Mockito.mock(UserCacheService.class), new LocationService(), new SimpleMeterRegistry(),
+                Mockito.mock(PlatformTransactionManager.class), cacheSize,
+                Duration.ofMinutes(10), Duration.ofSeconds(10));
+    }
+
+    static BloodBankService bloodBankService(long cacheSize) {
+        return new BloodBankService(Mockito.mock(BloodBankRepository.class),
+                Mockito.mock(BloodInventoryRepository.class), Mockito.mock(UserCacheService.class),
+                new LocationService(), Mockito.mock(NotificationOutboxService.class), new SimpleMeterRegistry(),
+                Mockito.mock(PlatformTransactionManager.class), cacheSize,
+                Duration.ofMinutes(10), Duration.ofSeconds(10));
+    }
+
+    static Coordinate coordinate(SplittableRandom random, Coordinate centre, double spreadDegrees) {
+        return Coordinate.ofDegrees(centre.degrees() + random.nextDouble(-spreadDegrees, spreadDegrees));
+    }
+
+    private static Ambulance ambulance(SplittableRandom random, long id, double spreadDegrees) {
+        return Ambulance.builder()
+                .id(id)
+                .vehicleNumber("KA-01-AB-" + (1000 + id % 9000))
+                .isAvailable(true)
+                .isApproved(true)
+                .currentLatitude(coordinate(random, PICKUP_LATITUDE, spreadDegrees))
+                .currentLongitude(coordinate(random, PICKUP_LONGITUDE, spreadDegrees))
+                .lastUpdatedLocation(NOW.minusSeconds(random.nextInt(600)))
+                .build();
+    }
+
+    private static User user(long id, Role role) {
+        return User.builder()
+                .id(id)
+                .email(role.name().toLowerCase() + "@ermn.com")
+                .fullName("Benchmark " + role.name().toLowerCase())
+                .phone("9876543210")
+                .role(role)
+                .isActive(true)
+                .createdAt(NOW.minusDays(400))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.entity.Ambulance;
+import com.ermn.service.LocationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.ermn.benchmark.BenchmarkFixtures.PICKUP_LATITUDE;
+import static com.ermn.benchmark.BenchmarkFixtures.PICKUP_LONGITUDE;
+import static com.ermn.benchmark.BenchmarkFixtures.coordinate;
+
+/**
+ * In-memory ranking of a fleet by distance from the pickup. Dispatch ranks candidates in MySQL
+ * with the spatial index; this is the ranking it replaced, and still the cost of any candidate
+ * list ranked in the JVM, so it is kept as the per-candidate reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchRankingBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int fleetSize;
+
+    private final LocationService locationService = new LocationService();
+    private List<Ambulance> fleet;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(Ambulance.builder()
+                    .id((long) i + 1)
+                    .vehicleNumber("BENCH-" + (i + 1))
+                    .isAvailable(true)
+                    .isApproved(true)
+                    .currentLatitude(coordinate(random, PICKUP_LATITUDE, 0.5))
+                    .currentLongitude(coordinate(random, PICKUP_LONGITUDE, 0.5))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Ambulance nearestCandidate() {
+        return fleet.stream()
+                .min(Comparator.comparingDouble(ambulance -> locationService.calculateDistance(
+                        PICKUP_LATITUDE, PICKUP_LONGITUDE,
+                        ambulance.getCurrentLatitude(), ambulance.getCurrentLongitude())))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,148 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.dto.response.BloodBankResponse;
+import com.ermn.model.dto.response.HospitalResponse;
+import com.ermn.model.entity.BedInventory;
+import com.ermn.model.entity.BloodBank;
+import com.ermn.model.entity.BloodInventory;
+import com.ermn.model.entity.Hospital;
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.BedType;
+import com.ermn.model.enums.BloodGroup;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.BedInventoryRepository;
+import com.ermn.repository.BloodBankRepository;
+import com.ermn.repository.BloodInventoryRepository;
+import com.ermn.repository.HospitalRepository;
+import com.ermn.service.BloodBankService;
+import com.ermn.service.HospitalService;
+import com.ermn.service.LocationService;
+import com.ermn.service.NotificationOutboxService;
+import com.ermn.service.UserCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.ermn.benchmark.BenchmarkFixtures.PICKUP_LATITUDE;
+import static com.ermn.benchmark.BenchmarkFixtures.PICKUP_LONGITUDE;
+import static com.ermn.benchmark.BenchmarkFixtures.coordinate;
+
+/**
+ * Full-list searches that compute a distance per facility and sort by it: the hospital list
+ * without a radius or limit, and the blood bank search by blood group. Both read from the
+ * reference caches, which are filled once in the setup from mocked repositories, so the
+ * measurement is the per-request copy, distance and sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacilitySearchBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int facilities;
+
+    private HospitalService hospitalService;
+    private BloodBankService bloodBankService;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        User admin = User.builder().id(1L).email("admin@ermn.com").role(Role.HOSPITAL_ADMIN).build();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Hospital> hospitals = new ArrayList<>(facilities);
+        List<BedInventory> beds = new ArrayList<>();
+        List<BloodBank> bloodBanks = new ArrayList<>(facilities);
+        List<BloodInventory> blood = new ArrayList<>();
+        for (int i = 0; i < facilities; i++) {
+            Hospital hospital = Hospital.builder()
+                    .id((long) i + 1)
+                    .name("Hospital " + (i + 1))
+                    .address("Ward " + (i % 200 + 1))
+                    .latitude(coordinate(random, PICKUP_LATITUDE, 2))
+                    .longitude(coordinate(random, PICKUP_LONGITUDE, 2))
+                    .phone("9999999999")
+                    .admin(admin)
+                    .createdAt(now)
+                    .build();
+            hospitals.add(hospital);
+            for (BedType type : BedType.values()) {
+                beds.add(BedInventory.builder().id((long) beds.size() + 1).hospital(hospital).bedType(type)
+                        .totalCapacity(50).availableCount(random.nextInt(51)).lastUpdated(now).build());
+            }
+
+            BloodBank bloodBank = BloodBank.builder()
+                    .id((long) i + 1)
+                    .name("Blood Bank " + (i + 1))
+                    .address("Ward " + (i % 200 + 1))
+                    .latitude(coordinate(random, PICKUP_LATITUDE, 2))
+                    .longitude(coordinate(random, PICKUP_LONGITUDE, 2))
+                    .phone("9999999999")
+                    .admin(admin)
+                    .createdAt(now)
+                    .build();
+            bloodBanks.add(bloodBank);
+            for (BloodGroup group : BloodGroup.values()) {
+                int units = random.nextInt(4) == 0 ? 0 : random.nextInt(60);
+                blood.add(BloodInventory.builder().id((long) blood.size() + 1).bloodBank(bloodBank).bloodGroup(group)
+                        .quantityUnits(units).minimumThreshold(10).isEmergencyShortage(units < 10).lastUpdated(now)
+                        .build());
+            }
+        }
+
+        HospitalRepository hospitalRepository = Mockito.mock(HospitalRepository.class);
+        Mockito.when(hospitalRepository.findAll()).thenReturn(hospitals);
+        BedInventoryRepository bedInventoryRepository = Mockito.mock(BedInventoryRepository.class);
+        Mockito.when(bedInventoryRepository.findByHospitalIn(ArgumentMatchers.any())).thenReturn(beds);
+        BloodBankRepository bloodBankRepository = Mockito.mock(BloodBankRepository.class);
+        Mockito.when(bloodBankRepository.findAll()).thenReturn(bloodBanks);
+        BloodInventoryRepository bloodInventoryRepository = Mockito.mock(BloodInventoryRepository.class);
+        Mockito.when(bloodInventoryRepository.findByBloodBankIn(ArgumentMatchers.any())).thenReturn(blood);
+
+        LocationService locationService = new LocationService();
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        hospitalService = new HospitalService(hospitalRepository, bedInventoryRepository,
+                Mockito.mock(UserCacheService.class), locationService, new SimpleMeterRegistry(), transactionManager,
+                facilities, Duration.ofMinutes(10), Duration.ofSeconds(10));
+        bloodBankService = new BloodBankService(bloodBankRepository, bloodInventoryRepository,
+                Mockito.mock(UserCacheService.class), locationService,
+                Mockito.mock(NotificationOutboxService.class), new SimpleMeterRegistry(), transactionManager,
+                facilities, Duration.ofMinutes(10), Duration.ofSeconds(10));
+
+        // Fill the caches
+        hospitalService.getAllHospitals(null, null, null, null);
+        bloodBankService.searchBloodBanks(BloodGroup.O_POSITIVE, null, null);
+    }
+
+    @Benchmark
+    public List<HospitalResponse> getAllHospitals() {
+        return hospitalService.getAllHospitals(PICKUP_LATITUDE, PICKUP_LONGITUDE, null, null);
+    }
+
+    @Benchmark
+    public List<BloodBankResponse> searchBloodBanks() {
+        return bloodBankService.searchBloodBanks(BloodGroup.O_POSITIVE, PICKUP_LATITUDE, PICKUP_LONGITUDE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.entity.Ambulance;
+import com.ermn.service.BloodBankService;
+import com.ermn.service.BookingService;
+import com.ermn.service.HospitalService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap of the objects the reference caches and list endpoints hold: an
+ * {@link Ambulance} entity, and response lists of 200 bookings, hospitals and blood banks once
+ * the entities they were mapped from are gone. JMH's allocation profiler measures what an
+ * operation allocates; this measures what stays reachable, as the heap in use after a full GC
+ * with and without many copies held.
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ermn.benchmark.HeapFootprint
+ * </pre>
+ */
+public final class HeapFootprint {
+
+    private static final int ENTITIES = 200_000;
+    private static final int LIST_SIZE = 200;
+    private static final int LISTS = 500;
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BookingService bookingService = BenchmarkFixtures.bookingService();
+        HospitalService hospitalService = BenchmarkFixtures.hospitalService(LIST_SIZE);
+        BloodBankService bloodBankService = BenchmarkFixtures.bloodBankService(LIST_SIZE);
+
+        System.out.printf("%-28s %12s%n", "object", "bytes");
+        report("Ambulance entity", ENTITIES, () -> BenchmarkFixtures.ambulances(ENTITIES, 0.5));
+        report("BookingResponse x" + LIST_SIZE, LISTS, () -> copies(() -> BenchmarkFixtures.bookings(LIST_SIZE)
+                .stream()
+                .map(bookingService::mapToBookingResponse)
+                .toList()));
+        report("HospitalResponse x" + LIST_SIZE, LISTS, () -> copies(() -> BenchmarkFixtures.hospitals(LIST_SIZE)
+                .entrySet().stream()
+                .map(entry -> hospitalService.mapToHospitalResponse(entry.getKey(), entry.getValue()))
+                .toList()));
+        report("BloodBankResponse x" + LIST_SIZE, LISTS, () -> copies(() -> BenchmarkFixtures.bloodBanks(LIST_SIZE)
+                .entrySet().stream()
+                .map(entry -> bloodBankService.mapToBloodBankResponse(entry.getKey(), entry.getValue()))
+                .toList()));
+    }
+
+    private static List<Object> copies(Supplier<Object> copy) {
+        List<Object> copies = new ArrayList<>(LISTS);
+        for (int i = 0; i < LISTS; i++) {
+            copies.add(copy.get());
+        }
+        return copies;
+    }
+
+    private static void report(String name, int count, Supplier<Object> build) throws InterruptedException {
+        long before = usedAfterGc();
+        Object held = build.get();
+        long after = usedAfterGc();
+        System.out.printf("%-28s %12.0f%n", name, (after - before) / (double) count);
+        Reference.reachabilityFence(held);
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
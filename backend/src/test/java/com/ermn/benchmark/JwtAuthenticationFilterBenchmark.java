@@ -0,0 +1,122 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.enums.Role;
+import com.ermn.repository.RefreshTokenRepository;
+import com.ermn.repository.UserRepository;
+import com.ermn.security.JwtAuthenticationFilter;
+import com.ermn.security.JwtTokenProvider;
+import com.ermn.security.RevokedTokenFamilies;
+import com.ermn.service.UserCacheService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter}. {@code verifiedCacheSize=0} measures a full
+ * parse and signature check on every request; the legacy benchmark uses a token without the role
+ * and family claims, whose role comes from the cached user instead. The user repository is a mock, so only
+ * the first, cache-filling lookup would reach it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-sixty-four-bytes-for-hs512-signing!!";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"0", "10000"})
+    public long verifiedCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String roleToken;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 3_600_000, 3_600_000,
+                verifiedCacheSize, Duration.ofMinutes(5));
+        com.ermn.model.entity.User citizen = com.ermn.model.entity.User.builder()
+                .id(1L)
+                .email("citizen@ermn.com")
+                .passwordHash("unused")
+                .fullName("Benchmark Citizen")
+                .phone("9999999999")
+                .role(Role.CITIZEN)
+                .isActive(true)
+                .build();
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByEmail(citizen.getEmail())).thenReturn(Optional.of(citizen));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserCacheService userCacheService = new UserCacheService(userRepository, meterRegistry,
+                10_000, Duration.ofMinutes(5), Duration.ofSeconds(10));
+        RevokedTokenFamilies revokedTokenFamilies = new RevokedTokenFamilies(
+                Mockito.mock(RefreshTokenRepository.class), meterRegistry, 100_000, 0.01, 30_000);
+        // Some revoked families, so that the filter is not trivially empty
+        for (int i = 0; i < 1_000; i++) {
+            revokedTokenFamilies.revoke(UUID.randomUUID(), LocalDateTime.now().plusDays(1));
+        }
+        filter = new JwtAuthenticationFilter(tokenProvider, userCacheService, revokedTokenFamilies);
+
+        UserDetails user = User.withUsername(citizen.getEmail()).password("unused").roles("CITIZEN").build();
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        roleToken = tokenProvider.generateToken(authentication, UUID.randomUUID());
+        legacyToken = Jwts.builder()
+                .subject(citizen.getEmail())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Benchmark
+    public Object roleClaimToken() throws Exception {
+        return authenticate(roleToken);
+    }
+
+    @Benchmark
+    public Object legacyTokenWithoutRoleClaim() throws Exception {
+        return authenticate(legacyToken);
+    }
+
+    private Object authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
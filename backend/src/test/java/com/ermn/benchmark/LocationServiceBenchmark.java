@@ -0,0 +1,44 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.geo.Coordinate;
+import com.ermn.service.LocationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geo primitives called for every candidate and every search: the haversine distance and the
+ * bounding box passed to the spatial index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationServiceBenchmark {
+
+    private final LocationService locationService = new LocationService();
+    private final Coordinate latitude = BenchmarkFixtures.PICKUP_LATITUDE;
+    private final Coordinate longitude = BenchmarkFixtures.PICKUP_LONGITUDE;
+    private final Coordinate otherLatitude = Coordinate.ofDegrees(13.0827);
+    private final Coordinate otherLongitude = Coordinate.ofDegrees(77.4812);
+
+    @Benchmark
+    public double calculateDistance() {
+        return locationService.calculateDistance(latitude, longitude, otherLatitude, otherLongitude);
+    }
+
+    @Benchmark
+    public String boundingBox() {
+        return locationService.boundingBox(latitude, longitude, 20);
+    }
+}
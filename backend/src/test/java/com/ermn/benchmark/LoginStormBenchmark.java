@@ -0,0 +1,131 @@
+package com.ermn.benchmark;
+
+import com.ermn.exception.ServiceUnavailableException;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.RefreshTokenRepository;
+import com.ermn.repository.UserRepository;
+import com.ermn.security.BoundedPasswordEncoder;
+import com.ermn.security.JwtAuthenticationFilter;
+import com.ermn.security.JwtTokenProvider;
+import com.ermn.security.RevokedTokenFamilies;
+import com.ermn.service.UserCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of an ordinary authenticated request while eight threads hammer the login path.
+ * With {@code bounded=false} every login hashes on its own request thread, as before the
+ * hashing executor existed; with {@code bounded=true} logins share a pool of half the cores
+ * and the overflow is rejected. Compare the {@code authenticatedRequest} percentiles.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-sixty-four-bytes-for-hs512-signing!!";
+    private static final String PASSWORD = "driver-shift-password";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"false", "true"})
+    public boolean bounded;
+
+    private PasswordEncoder passwordEncoder;
+    private String passwordHash;
+    private JwtAuthenticationFilter filter;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        passwordEncoder = bounded
+                ? new BoundedPasswordEncoder(bcrypt, poolSize, 64, Duration.ofSeconds(10), Duration.ofSeconds(2), null)
+                : bcrypt;
+        passwordHash = bcrypt.encode(PASSWORD);
+
+        com.ermn.model.entity.User driver = com.ermn.model.entity.User.builder()
+                .id(1L)
+                .email("driver@ermn.com")
+                .passwordHash(passwordHash)
+                .fullName("Benchmark Driver")
+                .phone("9999999999")
+                .role(Role.AMBULANCE_DRIVER)
+                .isActive(true)
+                .build();
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByEmail(driver.getEmail())).thenReturn(Optional.of(driver));
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 3_600_000, 3_600_000, 10_000, Duration.ofMinutes(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(tokenProvider,
+                new UserCacheService(userRepository, meterRegistry, 10_000, Duration.ofMinutes(5), Duration.ofSeconds(10)),
+                new RevokedTokenFamilies(Mockito.mock(RefreshTokenRepository.class), meterRegistry, 100_000, 0.01, 30_000));
+
+        UserDetails user = User.withUsername(driver.getEmail()).password(passwordHash).roles("AMBULANCE_DRIVER").build();
+        accessToken = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()),
+                UUID.randomUUID());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedEncoder) {
+            boundedEncoder.close();
+        }
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(8)
+    public boolean login() {
+        try {
+            return passwordEncoder.matches(PASSWORD, passwordHash);
+        } catch (ServiceUnavailableException ex) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(1)
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings/my");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ermn.benchmark;
+
+import com.ermn.ErmnApplication;
+import com.ermn.model.entity.Notification;
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.NotificationType;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.NotificationRepository;
+import com.ermn.repository.UserRepository;
+import com.ermn.service.NotificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A role-wide notification to {@code recipients} super admins among {@value #CITIZENS} citizens,
+ * against MySQL in a container:
+ * <ul>
+ *   <li>{@code insertSelect}: {@link NotificationService#createRoleNotifications}, one
+ *   {@code INSERT ... SELECT} on {@code idx_role_active}</li>
+ *   <li>{@code loadAndSave}: the previous implementation, which loaded every user, filtered them
+ *   in Java and saved one {@link Notification} at a time</li>
+ * </ul>
+ * Each operation runs in its own transaction; notifications are truncated after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationFanOutBenchmark {
+
+    private static final int CITIZENS = 20_000;
+
+    @Param({"10", "1000", "10000"})
+    public int recipients;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private UserRepository userRepository;
+    private NotificationRepository notificationRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("ermn_db")
+                .withUsername("test")
+                .withPassword("test");
+        mysql.start();
+        // As arguments, so that they take precedence over application.properties
+        context = new SpringApplicationBuilder(ErmnApplication.class)
+                .run("--spring.datasource.url=" + mysql.getJdbcUrl(),
+                        "--spring.datasource.username=" + mysql.getUsername(),
+                        "--spring.datasource.password=" + mysql.getPassword(),
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--ermn.data-seeder.enabled=false",
+                        "--ermn.sql-budget.enabled=false");
+        notificationService = context.getBean(NotificationService.class);
+        userRepository = context.getBean(UserRepository.class);
+        notificationRepository = context.getBean(NotificationRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<Object[]> users = new ArrayList<>(CITIZENS + recipients);
+        for (int i = 0; i < CITIZENS + recipients; i++) {
+            Role role = i < recipients ? Role.SUPER_ADMIN : Role.CITIZEN;
+            users.add(new Object[] {"user." + i + "@benchmark.ermn.com", "User " + i, role.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password_hash, full_name, phone, role) " +
+                "VALUES (?, 'unused', ?, '5555555555', ?)", users);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateNotifications() {
+        jdbcTemplate.execute("TRUNCATE TABLE notifications");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public Integer insertSelect() {
+        return transactionTemplate.execute(status -> notificationService.createRoleNotifications(
+                Role.SUPER_ADMIN, "Blood Shortage Alert", "Benchmark", NotificationType.BLOOD_SHORTAGE));
+    }
+
+    @Benchmark
+    public Integer loadAndSave() {
+        return transactionTemplate.execute(status -> {
+            List<User> superAdmins = userRepository.findAll().stream()
+                    .filter(user -> user.getRole() == Role.SUPER_ADMIN && user.getIsActive())
+                    .toList();
+            for (User admin : superAdmins) {
+                notificationRepository.save(Notification.builder()
+                        .user(admin)
+                        .title("Blood Shortage Alert")
+                        .message("Benchmark")
+                        .type(NotificationType.BLOOD_SHORTAGE)
+                        .isRead(false)
+                        .build());
+            }
+            return superAdmins.size();
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.ermn.benchmark;
+
+import com.ermn.security.RateLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RateLimitFilter} on the allow path, for one driver updating its location. The
+ * limit is set high enough that every request is admitted; the filter chain does nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("ermn.rate-limit.location", "1000000000/1s");
+        filter = new RateLimitFilter(environment, null, new ObjectMapper(), true, 100_000);
+        request = new MockHttpServletRequest("PUT", "/api/ambulances/1/location");
+        response = new MockHttpServletResponse();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "driver-" + Thread.currentThread().getId() + "@ermn.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_AMBULANCE_DRIVER"))));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse allowedLocationUpdate() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
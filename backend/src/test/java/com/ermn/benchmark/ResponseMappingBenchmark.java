@@ -0,0 +1,86 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.dto.response.BloodBankResponse;
+import com.ermn.model.dto.response.BookingResponse;
+import com.ermn.model.dto.response.HospitalResponse;
+import com.ermn.model.entity.BedInventory;
+import com.ermn.model.entity.BloodBank;
+import com.ermn.model.entity.BloodInventory;
+import com.ermn.model.entity.Booking;
+import com.ermn.model.entity.Hospital;
+import com.ermn.service.BloodBankService;
+import com.ermn.service.BookingService;
+import com.ermn.service.HospitalService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping for the list endpoints: a citizen's bookings, the hospital list and
+ * the blood bank list. Sizes are the element counts of one response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int size;
+
+    private BookingService bookingService;
+    private HospitalService hospitalService;
+    private BloodBankService bloodBankService;
+    private List<Booking> bookings;
+    private Map<Hospital, List<BedInventory>> hospitals;
+    private Map<BloodBank, List<BloodInventory>> bloodBanks;
+
+    @Setup
+    public void setUp() {
+        bookingService = BenchmarkFixtures.bookingService();
+        hospitalService = BenchmarkFixtures.hospitalService(size);
+        bloodBankService = BenchmarkFixtures.bloodBankService(size);
+        bookings = BenchmarkFixtures.bookings(size);
+        hospitals = BenchmarkFixtures.hospitals(size);
+        bloodBanks = BenchmarkFixtures.bloodBanks(size);
+    }
+
+    @Benchmark
+    public List<BookingResponse> mapBookings() {
+        List<BookingResponse> responses = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            responses.add(bookingService.mapToBookingResponse(booking));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<HospitalResponse> mapHospitals() {
+        List<HospitalResponse> responses = new ArrayList<>(hospitals.size());
+        hospitals.forEach((hospital, beds) -> responses.add(hospitalService.mapToHospitalResponse(hospital, beds)));
+        return responses;
+    }
+
+    @Benchmark
+    public List<BloodBankResponse> mapBloodBanks() {
+        List<BloodBankResponse> responses = new ArrayList<>(bloodBanks.size());
+        bloodBanks.forEach((bloodBank, inventories) ->
+                responses.add(bloodBankService.mapToBloodBankResponse(bloodBank, inventories)));
+        return responses;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.dto.response.BloodBankResponse;
+import com.ermn.model.dto.response.BookingResponse;
+import com.ermn.model.dto.response.HospitalResponse;
+import com.ermn.service.BloodBankService;
+import com.ermn.service.BookingService;
+import com.ermn.service.HospitalService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the list responses to JSON bytes, as the message converter writes them, under
+ * alternative {@link ObjectMapper} configurations:
+ * <ul>
+ *   <li>{@code default}: the mapper Spring Boot configures for the application</li>
+ *   <li>{@code blackbird}: with the Blackbird module, which replaces reflective getter calls with
+ *   generated lambdas (the successor of Afterburner, which does not work on Java 11 and later)</li>
+ * </ul>
+ * Coordinates are {@link com.ermn.model.geo.Coordinate}s and written as doubles; the baseline
+ * before that change also compared {@code BigDecimal} coordinates written as doubles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int size;
+
+    @Param({"default", "blackbird"})
+    public String config;
+
+    private ObjectMapper objectMapper;
+    private List<BookingResponse> bookings;
+    private List<HospitalResponse> hospitals;
+    private List<BloodBankResponse> bloodBanks;
+
+    @Setup
+    public void setUp() {
+        // Spring Boot's defaults on top of the builder's: ISO-8601 dates instead of timestamps
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+        if (config.equals("blackbird")) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+
+        BookingService bookingService = BenchmarkFixtures.bookingService();
+        HospitalService hospitalService = BenchmarkFixtures.hospitalService(size);
+        BloodBankService bloodBankService = BenchmarkFixtures.bloodBankService(size);
+        bookings = BenchmarkFixtures.bookings(size).stream()
+                .map(bookingService::mapToBookingResponse)
+                .toList();
+        hospitals = BenchmarkFixtures.hospitals(size).entrySet().stream()
+                .map(entry -> hospitalService.mapToHospitalResponse(entry.getKey(), entry.getValue()))
+                .toList();
+        bloodBanks = BenchmarkFixtures.bloodBanks(size).entrySet().stream()
+                .map(entry -> bloodBankService.mapToBloodBankResponse(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeHospitals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(hospitals);
+    }
+
+    @Benchmark
+    public byte[] serializeBloodBanks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bloodBanks);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ermn.benchmark;
+
+import com.ermn.ErmnApplication;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to ready (until {@code ApplicationReadyEvent}) of a cold JVM against a migrated MySQL,
+ * with the default configuration and with the {@code prod} profile (fast-start settings, no data
+ * seeding). Every fork is a new JVM and a new container, and measures a single start. The trial
+ * setup starts the container and applies the migrations, so the measured start only validates
+ * the schema, as a restarted instance does; Flyway's classes are loaded by then.
+ * <p>
+ * The class data sharing archive is a JVM option of the packaged application and cannot be
+ * applied to a forked benchmark classpath; see the README for how to compare it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("ermn_db")
+                .withUsername("test")
+                .withPassword("test");
+        mysql.start();
+        Flyway.configure()
+                .dataSource(new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword()))
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        mysql.stop();
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext timeToReady() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ErmnApplication.class);
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        // As arguments, so that they take precedence over application.properties
+        context = builder.run("--spring.datasource.url=" + mysql.getJdbcUrl(),
+                "--spring.datasource.username=" + mysql.getUsername(),
+                "--spring.datasource.password=" + mysql.getPassword(),
+                "--server.port=0",
+                "--management.server.port=0");
+        return context;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ermn.benchmark;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.UserRepository;
+import com.ermn.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Admin user searches against an index of {@code users} generated users, with 2% of them
+ * registered out of id order. The target is under 5 ms per page at a million users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Asha", "Vivaan", "Diya", "Arjun", "Meera", "Kabir", "Isha", "Rohan", "Anaya",
+            "Ravi", "Priya", "Karan", "Neha", "Sanjay", "Pooja", "Vikram", "Kavya", "Aditya", "Sneha"};
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Verma", "Rao", "Iyer", "Nair", "Reddy", "Kumar", "Gupta", "Das", "Menon",
+            "Patel", "Singh", "Joshi", "Kulkarni", "Bose", "Pillai", "Shetty", "Mehta", "Chopra", "Naidu"};
+    private static final Role[] ROLES = {Role.CITIZEN, Role.CITIZEN, Role.CITIZEN, Role.CITIZEN, Role.CITIZEN,
+            Role.CITIZEN, Role.CITIZEN, Role.AMBULANCE_DRIVER, Role.HOSPITAL_ADMIN, Role.BLOOD_BANK_ADMIN};
+
+    @Param({"1000000"})
+    public int users;
+
+    private UserSearchIndex index;
+    private Long secondPageCursor;
+
+    @Setup
+    public void setUp() {
+        List<User> all = generate(users);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findBatchAfter(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.<Pageable>getArgument(1).getPageSize();
+            int from = (int) Math.min(afterId, all.size());
+            return all.subList(from, Math.min(from + limit, all.size()));
+        });
+        index = new UserSearchIndex(userRepository, Duration.ofMinutes(1));
+        index.rebuild();
+
+        // Registrations committed out of id order take slots after every id above them
+        Random random = new Random(7);
+        for (int i = 0; i < users / 50; i++) {
+            User user = all.get(random.nextInt(all.size()));
+            index.index(User.builder().id(user.getId() + users).fullName(user.getFullName())
+                    .email("late." + user.getEmail()).phone(user.getPhone()).role(user.getRole())
+                    .isActive(user.getIsActive()).build());
+        }
+        secondPageCursor = index.search("asha", null, null, null, 20, false).nextCursor();
+    }
+
+    private static List<User> generate(int count) {
+        Random random = new Random(42);
+        List<User> generated = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            generated.add(User.builder()
+                    .id((long) i)
+                    .fullName(first + " " + last)
+                    .email(first.toLowerCase() + "." + last.toLowerCase() + i + "@example.com")
+                    .phone(String.valueOf(6_000_000_000L + random.nextInt(1_000_000_000)))
+                    .role(ROLES[random.nextInt(ROLES.length)])
+                    .isActive(random.nextInt(20) != 0)
+                    .build());
+        }
+        return generated;
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult commonPrefix() {
+        return index.search("a", null, null, null, 20, false);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult commonPrefixSecondPage() {
+        return index.search("asha", null, null, secondPageCursor, 20, false);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult twoWordsWithRole() {
+        return index.search("meera kum", Role.AMBULANCE_DRIVER, true, null, 20, false);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult selectivePhone() {
+        return index.search("600012", null, null, null, 20, false);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult commonPrefixWithTotal() {
+        return index.search("asha", Role.CITIZEN, true, null, 20, true);
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult inactiveWithTotal() {
+        return index.search(null, null, false, null, 20, true);
+    }
+}
@@ -0,0 +1,158 @@
+package com.ermn.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two independent MySQL instances stand in for primary and replica. They do not replicate, so
+ * each database's content shows where a read went, and replication progress is simulated by
+ * writing the heartbeat row on the replica by hand.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String INSTANCE_ID = "routing-test";
+
+    @Container
+    static MySQLContainer<?> primary = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static MySQLContainer<?> replica = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("ermn.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("ermn.datasource.replica.instance-id", () -> INSTANCE_ID);
+        registry.add("ermn.datasource.replica.heartbeat-interval-ms", () -> "3600000");
+        registry.add("ermn.datasource.replica.max-lag", () -> "1m");
+    }
+
+    private static JdbcTemplate replicaJdbc;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeAll
+    static void prepareReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        replicaJdbc = new JdbcTemplate(dataSource);
+        replicaJdbc.update("INSERT INTO users (email, password_hash, full_name, phone, role) "
+                + "VALUES ('replica-admin@ermn.com', 'unused', 'Replica Admin', '9999999999', 'HOSPITAL_ADMIN')");
+        replicaJdbc.update("INSERT INTO hospitals (name, address, latitude, longitude, admin_id) "
+                + "SELECT 'Replica Hospital', 'Replica Road', 12.9, 77.5, id FROM users WHERE email = 'replica-admin@ermn.com'");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaExceptRightAfterOwnWrites() throws Exception {
+        String adminToken = login("admin@ermn.com", "admin123");
+        Thread.sleep(5);
+        replicateUpToNow();
+
+        mockMvc.perform(get("/api/admin/users").param("size", "100").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].email", hasItem("replica-admin@ermn.com")));
+
+        long hospitalAdminId = register("fresh-admin@ermn.com");
+        mockMvc.perform(post("/api/admin/hospitals")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "Fresh Hospital",
+                                "address", "Primary Road",
+                                "latitude", 12.97,
+                                "longitude", 77.59,
+                                "adminUserId", hospitalAdminId))))
+                .andExpect(status().isOk());
+
+        // The admin's write has not reached the replica yet: read your writes from the primary
+        mockMvc.perform(get("/api/admin/users").param("size", "100").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].email", hasItem("fresh-admin@ermn.com")))
+                .andExpect(jsonPath("$.content[*].email", not(hasItem("replica-admin@ermn.com"))));
+        // Cached reference data is always loaded from the primary
+        mockMvc.perform(get("/api/hospitals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", hasItem("Fresh Hospital")))
+                .andExpect(jsonPath("$[*].name", not(hasItem("Replica Hospital"))));
+
+        Thread.sleep(5);
+        replicateUpToNow();
+
+        mockMvc.perform(get("/api/admin/users").param("size", "100").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].email", hasItem("replica-admin@ermn.com")));
+    }
+
+    private void replicateUpToNow() {
+        replicaJdbc.update("INSERT INTO replication_heartbeats (instance_id, beat_millis) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)", INSTANCE_ID, System.currentTimeMillis());
+        replicaLagMonitor.heartbeat();
+    }
+
+    private String login(String email, String password) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+
+    private long register(String email) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "email", email,
+                                "password", "password123",
+                                "fullName", "Fresh Admin",
+                                "phone", "+1234567890",
+                                "role", "HOSPITAL_ADMIN"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode user = objectMapper.readTree(response).get("user");
+        return user.get("id").asLong();
+    }
+}
@@ -0,0 +1,174 @@
+package com.ermn.config;
+
+import com.ermn.ErmnApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances share a primary and a replica, which are independent MySQL
+ * instances as in {@link ReadReplicaRoutingIntegrationTest}. A write through one instance must
+ * be readable through the other as soon as the client presents the write token it was handed.
+ */
+@Testcontainers
+class ReadYourWritesAcrossInstancesIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> primary = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Container
+    static MySQLContainer<?> replica = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private static JdbcTemplate replicaJdbc;
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+
+    @BeforeAll
+    static void startInstances() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        replicaJdbc = new JdbcTemplate(dataSource);
+        replicaJdbc.update("INSERT INTO users (email, password_hash, full_name, phone, role) "
+                + "VALUES ('replica-admin@ermn.com', 'unused', 'Replica Admin', '9999999999', 'HOSPITAL_ADMIN')");
+
+        instanceA = start("instance-a", true);
+        instanceB = start("instance-b", false);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (instanceB != null) {
+            instanceB.close();
+        }
+        if (instanceA != null) {
+            instanceA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String instanceId, boolean seed) {
+        // As arguments, so that they take precedence over application.properties
+        return new SpringApplicationBuilder(ErmnApplication.class).run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=" + primary.getJdbcUrl(),
+                "--spring.datasource.username=" + primary.getUsername(),
+                "--spring.datasource.password=" + primary.getPassword(),
+                "--ermn.datasource.replica.url=" + replica.getJdbcUrl(),
+                "--ermn.datasource.replica.instance-id=" + instanceId,
+                "--ermn.datasource.replica.heartbeat-interval-ms=3600000",
+                "--ermn.datasource.replica.max-lag=1m",
+                "--ermn.data-seeder.enabled=" + seed);
+    }
+
+    @Test
+    void writeTokenFromOneInstanceRoutesReadsOnAnotherToThePrimary() throws Exception {
+        String adminToken = login("admin@ermn.com", "admin123");
+        Thread.sleep(5);
+        replicateUpToNow();
+        assertThat(userEmails(instanceB, adminToken, null)).contains("replica-admin@ermn.com");
+
+        HttpResponse<String> registered = send(instanceA, "POST", "/api/auth/register", null, null, Map.of(
+                "email", "fresh-admin@ermn.com",
+                "password", "password123",
+                "fullName", "Fresh Admin",
+                "phone", "+1234567890",
+                "role", "HOSPITAL_ADMIN"));
+        assertThat(registered.statusCode()).isEqualTo(200);
+        String writeToken = writeTokenCookie(registered);
+        assertThat(writeToken).isNotNull();
+
+        // Instance B never saw the write, but the token routes the client's reads to the primary
+        assertThat(userEmails(instanceB, adminToken, writeToken))
+                .contains("fresh-admin@ermn.com")
+                .doesNotContain("replica-admin@ermn.com");
+        assertThat(userEmails(instanceB, adminToken, null)).contains("replica-admin@ermn.com");
+
+        Thread.sleep(5);
+        replicateUpToNow();
+        assertThat(userEmails(instanceB, adminToken, writeToken)).contains("replica-admin@ermn.com");
+    }
+
+    private static void replicateUpToNow() {
+        for (String instanceId : List.of("instance-a", "instance-b")) {
+            replicaJdbc.update("INSERT INTO replication_heartbeats (instance_id, beat_millis) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)", instanceId, System.currentTimeMillis());
+        }
+        instanceA.getBean(ReplicaLagMonitor.class).heartbeat();
+        instanceB.getBean(ReplicaLagMonitor.class).heartbeat();
+    }
+
+    private static String login(String email, String password) throws Exception {
+        HttpResponse<String> response = send(instanceA, "POST", "/api/auth/login", null, null,
+                Map.of("email", email, "password", password));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private static List<String> userEmails(ConfigurableApplicationContext instance, String accessToken,
+                                           String writeToken) throws Exception {
+        HttpResponse<String> response = send(instance, "GET", "/api/admin/users?size=100", accessToken, writeToken, null);
+        assertThat(response.statusCode()).isEqualTo(200);
+        List<String> emails = new ArrayList<>();
+        for (JsonNode user : objectMapper.readTree(response.body()).get("content")) {
+            emails.add(user.get("email").asText());
+        }
+        return emails;
+    }
+
+    private static String writeTokenCookie(HttpResponse<String> response) {
+        String prefix = ReadWriteRoutingDataSource.WRITE_TOKEN_COOKIE + "=";
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith(prefix))
+                .map(cookie -> cookie.substring(prefix.length(), cookie.indexOf(';')))
+                .reduce((first, last) -> last)
+                .orElse(null);
+    }
+
+    private static HttpResponse<String> send(ConfigurableApplicationContext instance, String method, String path,
+                                             String accessToken, String writeToken, Object body) throws Exception {
+        int port = ((WebServerApplicationContext) instance).getWebServer().getPort();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .header("Content-Type", "application/json");
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        if (writeToken != null) {
+            request.header("Cookie", ReadWriteRoutingDataSource.WRITE_TOKEN_COOKIE + "=" + writeToken);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ermn.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringBootTest
+@ActiveProfiles("synthetic-data")
+class SyntheticDataGeneratorIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("ermn.synthetic-data.hospitals", () -> "40");
+        registry.add("ermn.synthetic-data.blood-banks", () -> "10");
+        registry.add("ermn.synthetic-data.ambulances", () -> "200");
+        registry.add("ermn.synthetic-data.citizens", () -> "2000");
+        registry.add("ermn.synthetic-data.bookings", () -> "20000");
+        registry.add("ermn.synthetic-data.batch-size", () -> "1000");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Test
+    void generatesConfiguredVolumesOnceAtStartup() {
+        assertThat(count("SELECT COUNT(*) FROM users WHERE email LIKE 'citizen.%@synthetic.ermn.com'")).isEqualTo(2000);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE email LIKE 'driver.%@synthetic.ermn.com'")).isEqualTo(200);
+        assertThat(count("SELECT COUNT(*) FROM hospitals h JOIN users u ON u.id = h.admin_id " +
+                "WHERE u.email LIKE '%@synthetic.ermn.com'")).isEqualTo(40);
+        assertThat(count("SELECT COUNT(*) FROM bed_inventory b JOIN hospitals h ON h.id = b.hospital_id " +
+                "JOIN users u ON u.id = h.admin_id WHERE u.email LIKE '%@synthetic.ermn.com'")).isEqualTo(120);
+        assertThat(count("SELECT COUNT(*) FROM ambulances WHERE vehicle_number LIKE 'SYN-%'")).isEqualTo(200);
+        assertThat(count("SELECT COUNT(*) FROM bookings")).isEqualTo(20000);
+
+        assertThat(generator.generate(new SyntheticDataGenerator.Volumes(1, 1, 1, 1, 1, 1))).isFalse();
+        assertThat(count("SELECT COUNT(*) FROM bookings")).isEqualTo(20000);
+    }
+
+    @Test
+    void historyAndLocationsAreRealistic() {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(requested_at) FROM bookings", Timestamp.class);
+        assertThat(oldest.toLocalDateTime()).isAfter(LocalDateTime.now().minusDays(362));
+        assertThat(count("SELECT COUNT(*) FROM bookings WHERE status = 'COMPLETED' AND " +
+                "(ambulance_id IS NULL OR assigned_at < requested_at OR arrived_at IS NULL OR arrived_at < assigned_at " +
+                "OR completed_at < arrived_at)")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM hospitals WHERE latitude NOT BETWEEN 12 AND 30 " +
+                "OR longitude NOT BETWEEN 72 AND 89")).isZero();
+
+        assertThat(count("SELECT COALESCE(SUM(booking_count), 0) FROM booking_rollups")).isEqualTo(20000);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
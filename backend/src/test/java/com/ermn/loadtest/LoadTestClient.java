@@ -0,0 +1,218 @@
+package com.ermn.loadtest;
+
+import com.ermn.websocket.TrackingMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP and STOMP access to a running backend for the load harness. Every call records its
+ * latency or its failure under the given operation name; latencies are measured from the
+ * intended start time passed by the caller, so a backend that falls behind the schedule shows up
+ * in the percentiles instead of silently lowering the offered load.
+ */
+final class LoadTestClient implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LoadTestReport report;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final WebSocketStompClient stompClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadTestClient(String baseUrl, LoadTestReport report) {
+        this.baseUrl = baseUrl;
+        this.report = report;
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        this.stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.stompClient.setMessageConverter(converter);
+    }
+
+    /**
+     * Logs in and completes with the access token, or with {@code null} when the login failed.
+     */
+    CompletableFuture<String> login(String email, String password) {
+        return send("auth.login", post("/api/auth/login", null, Map.of("email", email, "password", password)),
+                System.nanoTime())
+                .thenApply(body -> body == null ? null : body.path("accessToken").asText(null));
+    }
+
+    CompletableFuture<JsonNode> createBooking(String token, double latitude, double longitude, long intendedStart) {
+        return send("booking.create", post("/api/bookings", token,
+                Map.of("pickupLatitude", latitude, "pickupLongitude", longitude)), intendedStart);
+    }
+
+    CompletableFuture<JsonNode> completeBooking(String token, long bookingId) {
+        HttpRequest request = request("/api/bookings/" + bookingId + "/status?status=COMPLETED", token)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return send("booking.complete", request, System.nanoTime());
+    }
+
+    CompletableFuture<JsonNode> listHospitals(String token, double latitude, double longitude, long intendedStart) {
+        return send("hospitals.list", request("/api/hospitals?latitude=" + latitude + "&longitude=" + longitude, token)
+                .GET().build(), intendedStart);
+    }
+
+    CompletableFuture<JsonNode> searchBloodBanks(String token, double latitude, double longitude, long intendedStart) {
+        return send("bloodbanks.search", request("/api/blood-banks/search?bloodGroup=O_POSITIVE&latitude=" + latitude
+                + "&longitude=" + longitude, token).GET().build(), intendedStart);
+    }
+
+    CompletableFuture<JsonNode> dashboard(String token, long intendedStart) {
+        return send("dashboard", request("/api/admin/dashboard", token).GET().build(), intendedStart);
+    }
+
+    CompletableFuture<StompSession> connect() {
+        long started = System.nanoTime();
+        return stompClient.connectAsync(baseUrl + "/ws/tracking", new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                                byte[] payload, Throwable exception) {
+                        report.failure("stomp.frame", exception.getClass().getSimpleName());
+                    }
+
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        report.failure("stomp.transport", exception.getClass().getSimpleName());
+                    }
+                })
+                .whenComplete((session, ex) -> {
+                    if (ex == null) {
+                        report.success("stomp.connect", System.nanoTime() - started);
+                    } else {
+                        report.failure("stomp.connect", rootCause(ex).getClass().getSimpleName());
+                    }
+                });
+    }
+
+    /**
+     * Subscribes to a booking's tracking topic and records the end-to-end lag of every update,
+     * from the timestamp the sender put into the message to its delivery here.
+     */
+    StompSession.Subscription subscribeTracking(StompSession session, long bookingId) {
+        return session.subscribe("/topic/tracking/" + bookingId, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return TrackingMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                TrackingMessage message = (TrackingMessage) payload;
+                if (message.getTimestamp() != null) {
+                    report.success("tracking.lag", Duration.between(message.getTimestamp(), LocalDateTime.now()).toNanos());
+                }
+            }
+        });
+    }
+
+    void sendLocation(StompSession session, TrackingMessage message) {
+        try {
+            session.send("/app/tracking/update", message);
+            report.count("tracking.send");
+        } catch (RuntimeException ex) {
+            report.failure("tracking.send", ex.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Waits until no HTTP call is outstanding, or the timeout has passed.
+     */
+    void awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(50);
+        }
+    }
+
+    private CompletableFuture<JsonNode> send(String operation, HttpRequest request, long intendedStart) {
+        inFlight.incrementAndGet();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, ex) -> {
+                    inFlight.decrementAndGet();
+                    long latency = System.nanoTime() - intendedStart;
+                    if (ex != null) {
+                        report.failure(operation, rootCause(ex).getClass().getSimpleName());
+                        return null;
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        report.failure(operation, String.valueOf(response.statusCode()));
+                        return null;
+                    }
+                    report.success(operation, latency);
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @Override
+    public void close() {
+        stompClient.stop();
+    }
+}
@@ -0,0 +1,369 @@
+package com.ermn.loadtest;
+
+import com.ermn.model.geo.Coordinate;
+import com.ermn.websocket.TrackingMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a mixed surge against a running backend that holds data from the {@code synthetic-data}
+ * profile:
+ * <ul>
+ *     <li>citizens {@code citizen.1..N@synthetic.ermn.com} log in, then create bookings at a fixed
+ *     rate around the synthetic city centres, round robin over the logged-in citizens;</li>
+ *     <li>for every booking assigned to a synthetic ambulance ({@code SYN-k}), driver
+ *     {@code driver.k} logs in, connects over STOMP and streams location updates to
+ *     {@code /app/tracking/update}, then completes the booking so the ambulance is free again;</li>
+ *     <li>a pool of subscriber connections follows each trip on {@code /topic/tracking/{id}}
+ *     ({@code fan-out} subscribers per trip) and records the end-to-end tracking lag;</li>
+ *     <li>admins poll the dashboard;</li>
+ *     <li>citizens list hospitals and search blood banks by distance at a fixed rate
+ *     ({@code list-rate}, off by default).</li>
+ * </ul>
+ * Options are passed as {@code --name=value}; see {@link #DEFAULTS}. The backend rate limits auth
+ * calls per client IP and bookings per citizen, so start it with {@code --ermn.rate-limit.enabled=false}
+ * unless the limits themselves are under test; rejected calls are reported as {@code 429} errors.
+ */
+public final class LoadTestHarness {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("base-url", "http://localhost:8080");
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("citizens", "1000");
+        DEFAULTS.put("password", "password123");
+        DEFAULTS.put("login-concurrency", "32");
+        DEFAULTS.put("booking-rate", "20");
+        DEFAULTS.put("max-trips", "200");
+        DEFAULTS.put("trip-updates", "30");
+        DEFAULTS.put("location-interval", "1s");
+        DEFAULTS.put("subscribers", "50");
+        DEFAULTS.put("fan-out", "3");
+        DEFAULTS.put("dashboards", "5");
+        DEFAULTS.put("dashboard-interval", "5s");
+        DEFAULTS.put("list-rate", "0");
+        DEFAULTS.put("admin-email", "admin@ermn.com");
+        DEFAULTS.put("admin-password", "admin123");
+        DEFAULTS.put("report-interval", "10s");
+        DEFAULTS.put("output", "target/loadtest");
+    }
+
+    private static final double[][] CITY_CENTRES = {
+            {12.9716, 77.5946}, {19.0760, 72.8777}, {28.6139, 77.2090}, {13.0827, 80.2707},
+            {17.3850, 78.4867}, {22.5726, 88.3639}, {18.5204, 73.8567}, {23.0225, 72.5714},
+    };
+    private static final double PICKUP_SPREAD_DEGREES = 0.1;
+    private static final String SYNTHETIC_VEHICLE_PREFIX = "SYN-";
+
+    private final Options options;
+    private final LoadTestClient client;
+    private final LoadTestReport report;
+    private final ScheduledExecutorService scheduler =
+            Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
+    private final Map<String, CompletableFuture<String>> driverTokens = new ConcurrentHashMap<>();
+    private final Set<Trip> trips = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeTrips = new AtomicInteger();
+    private final AtomicLong bookingsIssued = new AtomicLong();
+    private final AtomicLong listsIssued = new AtomicLong();
+    private final List<String> citizenTokens = new ArrayList<>();
+    private final List<StompSession> subscribers = new ArrayList<>();
+
+    LoadTestHarness(Options options, LoadTestClient client, LoadTestReport report) {
+        this.options = options;
+        this.client = client;
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadTestReport report = new LoadTestReport();
+        try (LoadTestClient client = new LoadTestClient(options.baseUrl(), report)) {
+            new LoadTestHarness(options, client, report).run();
+        }
+        report.printSummary(System.out);
+        report.writeHistograms(options.output());
+        System.out.println("Histograms written to " + options.output().toAbsolutePath());
+        System.exit(0);
+    }
+
+    void run() throws InterruptedException {
+        logInCitizens();
+        String adminToken = options.dashboards() > 0
+                ? client.login(options.adminEmail(), options.adminPassword()).join()
+                : null;
+        if (options.dashboards() > 0 && adminToken == null) {
+            System.out.println("Admin login failed, dashboards are not polled");
+        }
+        openSubscribers();
+
+        System.out.printf("Offering %.1f bookings/s for %s with %d citizens and %d subscriber connections%n",
+                options.bookingRate(), options.duration(), citizenTokens.size(), subscribers.size());
+        List<ScheduledFuture<?>> load = new ArrayList<>();
+        long started = System.nanoTime();
+        if (options.bookingRate() > 0) {
+            long bookingPeriod = Math.max(1, (long) (1e9 / options.bookingRate()));
+            load.add(scheduler.scheduleAtFixedRate(() -> book(started, bookingPeriod),
+                    0, bookingPeriod, TimeUnit.NANOSECONDS));
+        }
+        if (options.listRate() > 0) {
+            long listPeriod = Math.max(1, (long) (1e9 / options.listRate()));
+            load.add(scheduler.scheduleAtFixedRate(() -> list(started, listPeriod),
+                    0, listPeriod, TimeUnit.NANOSECONDS));
+        }
+        if (adminToken != null) {
+            long pollPeriod = options.dashboardInterval().toNanos();
+            for (int i = 0; i < options.dashboards(); i++) {
+                long offset = pollPeriod * i / options.dashboards();
+                AtomicLong polls = new AtomicLong();
+                load.add(scheduler.scheduleAtFixedRate(() -> client.dashboard(adminToken,
+                                started + offset + polls.getAndIncrement() * pollPeriod),
+                        offset, pollPeriod, TimeUnit.NANOSECONDS));
+            }
+        }
+        ScheduledFuture<?> progress = scheduler.scheduleAtFixedRate(() -> report.printInterval(System.out),
+                options.reportInterval().toNanos(), options.reportInterval().toNanos(), TimeUnit.NANOSECONDS);
+
+        Thread.sleep(options.duration().toMillis());
+        load.forEach(task -> task.cancel(false));
+
+        // Let running trips stream to the end and complete their bookings
+        long drainDeadline = System.nanoTime()
+                + options.locationInterval().multipliedBy(options.tripUpdates()).plusSeconds(30).toNanos();
+        while (activeTrips.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(200);
+        }
+        trips.forEach(Trip::finish);
+        client.awaitIdle(Duration.ofSeconds(30));
+        progress.cancel(false);
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        subscribers.forEach(StompSession::disconnect);
+    }
+
+    private void logInCitizens() throws InterruptedException {
+        Semaphore permits = new Semaphore(options.loginConcurrency());
+        List<CompletableFuture<String>> logins = new ArrayList<>();
+        for (int i = 1; i <= options.citizens(); i++) {
+            permits.acquire();
+            logins.add(client.login("citizen." + i + "@synthetic.ermn.com", options.password())
+                    .whenComplete((token, ex) -> permits.release()));
+        }
+        logins.stream().map(CompletableFuture::join).filter(Objects::nonNull).forEach(citizenTokens::add);
+        System.out.printf("%d of %d citizens logged in%n", citizenTokens.size(), options.citizens());
+        if (citizenTokens.isEmpty()) {
+            throw new IllegalStateException("No citizen could log in to " + options.baseUrl()
+                    + "; is the backend running with synthetic data?");
+        }
+    }
+
+    private void openSubscribers() {
+        List<CompletableFuture<StompSession>> connections = new ArrayList<>();
+        for (int i = 0; i < options.subscribers(); i++) {
+            connections.add(client.connect().exceptionally(ex -> null));
+        }
+        connections.stream().map(CompletableFuture::join).filter(Objects::nonNull).forEach(subscribers::add);
+    }
+
+    private void book(long started, long bookingPeriod) {
+        long n = bookingsIssued.getAndIncrement();
+        String token = citizenTokens.get((int) (n % citizenTokens.size()));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] centre = CITY_CENTRES[random.nextInt(CITY_CENTRES.length)];
+        double latitude = centre[0] + random.nextDouble(-PICKUP_SPREAD_DEGREES, PICKUP_SPREAD_DEGREES);
+        double longitude = centre[1] + random.nextDouble(-PICKUP_SPREAD_DEGREES, PICKUP_SPREAD_DEGREES);
+        client.createBooking(token, latitude, longitude, started + n * bookingPeriod)
+                .thenAccept(this::dispatched);
+    }
+
+    /**
+     * Alternates between the full hospital list and a blood bank search, both sorted by distance
+     * from a random position around a city centre.
+     */
+    private void list(long started, long listPeriod) {
+        long n = listsIssued.getAndIncrement();
+        String token = citizenTokens.get((int) (n % citizenTokens.size()));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double[] centre = CITY_CENTRES[random.nextInt(CITY_CENTRES.length)];
+        double latitude = centre[0] + random.nextDouble(-PICKUP_SPREAD_DEGREES, PICKUP_SPREAD_DEGREES);
+        double longitude = centre[1] + random.nextDouble(-PICKUP_SPREAD_DEGREES, PICKUP_SPREAD_DEGREES);
+        if (n % 2 == 0) {
+            client.listHospitals(token, latitude, longitude, started + n * listPeriod);
+        } else {
+            client.searchBloodBanks(token, latitude, longitude, started + n * listPeriod);
+        }
+    }
+
+    private void dispatched(JsonNode booking) {
+        if (booking == null || !"ASSIGNED".equals(booking.path("status").asText())) {
+            return;
+        }
+        String vehicleNumber = booking.path("ambulance").path("vehicleNumber").asText("");
+        if (!vehicleNumber.startsWith(SYNTHETIC_VEHICLE_PREFIX)) {
+            report.count("trip.skipped");
+            return;
+        }
+        long bookingId = booking.path("id").asLong();
+        String driverEmail = "driver." + vehicleNumber.substring(SYNTHETIC_VEHICLE_PREFIX.length()) + "@synthetic.ermn.com";
+        CompletableFuture<String> driverToken = driverTokens.computeIfAbsent(driverEmail,
+                email -> client.login(email, options.password()));
+
+        activeTrips.incrementAndGet();
+        if (activeTrips.get() > options.maxTrips()) {
+            // Over the trip limit: release the ambulance without streaming
+            report.count("trip.skipped");
+            release(driverToken, bookingId);
+            return;
+        }
+
+        double[] from = {
+                booking.path("ambulance").path("currentLatitude").asDouble(),
+                booking.path("ambulance").path("currentLongitude").asDouble()};
+        double[] to = {booking.path("pickupLatitude").asDouble(), booking.path("pickupLongitude").asDouble()};
+        driverToken.thenCombine(client.connect(), (token, session) -> new Trip(bookingId, token, session, from, to))
+                .whenComplete((trip, ex) -> {
+                    if (ex != null) {
+                        report.failure("trip.start", ex.getClass().getSimpleName());
+                        release(driverToken, bookingId);
+                    } else {
+                        trip.start();
+                    }
+                });
+    }
+
+    private void release(CompletableFuture<String> driverToken, long bookingId) {
+        driverToken.thenCompose(token -> token == null ? CompletableFuture.completedFuture(null)
+                        : client.completeBooking(token, bookingId))
+                .whenComplete((result, ex) -> activeTrips.decrementAndGet());
+    }
+
+    private final class Trip {
+
+        private final long bookingId;
+        private final String driverToken;
+        private final StompSession driver;
+        private final double[] from;
+        private final double[] to;
+        private final List<StompSession.Subscription> subscriptions = new ArrayList<>();
+        private int sent;
+        private ScheduledFuture<?> updates;
+        private boolean finished;
+
+        Trip(long bookingId, String driverToken, StompSession driver, double[] from, double[] to) {
+            this.bookingId = bookingId;
+            this.driverToken = driverToken;
+            this.driver = driver;
+            this.from = from;
+            this.to = to;
+        }
+
+        void start() {
+            trips.add(this);
+            for (int i = 0; i < Math.min(options.fanOut(), subscribers.size()); i++) {
+                StompSession subscriber = subscribers.get((int) ((bookingId + i) % subscribers.size()));
+                synchronized (subscriber) {
+                    subscriptions.add(client.subscribeTracking(subscriber, bookingId));
+                }
+            }
+            // The first update goes out one interval later, after the subscriptions are in place
+            long interval = options.locationInterval().toNanos();
+            updates = scheduler.scheduleAtFixedRate(this::update, interval, interval, TimeUnit.NANOSECONDS);
+        }
+
+        private void update() {
+            if (sent >= options.tripUpdates()) {
+                finish();
+                return;
+            }
+            double progress = (double) ++sent / options.tripUpdates();
+            client.sendLocation(driver, TrackingMessage.builder()
+                    .bookingId(bookingId)
+                    .latitude(Coordinate.ofDegrees(from[0] + (to[0] - from[0]) * progress))
+                    .longitude(Coordinate.ofDegrees(from[1] + (to[1] - from[1]) * progress))
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+
+        synchronized void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (updates != null) {
+                updates.cancel(false);
+            }
+            for (StompSession.Subscription subscription : subscriptions) {
+                try {
+                    subscription.unsubscribe();
+                } catch (RuntimeException ex) {
+                    report.failure("tracking.unsubscribe", ex.getClass().getSimpleName());
+                }
+            }
+            driver.disconnect();
+            trips.remove(this);
+            release(CompletableFuture.completedFuture(driverToken), bookingId);
+        }
+    }
+
+    record Options(String baseUrl, Duration duration, int citizens, String password, int loginConcurrency,
+                   double bookingRate, int maxTrips, int tripUpdates, Duration locationInterval, int subscribers,
+                   int fanOut, int dashboards, Duration dashboardInterval, double listRate, String adminEmail,
+                   String adminPassword, Duration reportInterval, Path output) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                String name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+                if (name == null || !values.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown option '" + arg + "', expected --name=value with name one of "
+                            + DEFAULTS.keySet());
+                }
+                values.put(name, arg.substring(separator + 1));
+            }
+            return new Options(values.get("base-url").replaceAll("/+$", ""),
+                    duration(values, "duration"),
+                    Integer.parseInt(values.get("citizens")),
+                    values.get("password"),
+                    Integer.parseInt(values.get("login-concurrency")),
+                    Double.parseDouble(values.get("booking-rate")),
+                    Integer.parseInt(values.get("max-trips")),
+                    Integer.parseInt(values.get("trip-updates")),
+                    duration(values, "location-interval"),
+                    Integer.parseInt(values.get("subscribers")),
+                    Integer.parseInt(values.get("fan-out")),
+                    Integer.parseInt(values.get("dashboards")),
+                    duration(values, "dashboard-interval"),
+                    Double.parseDouble(values.get("list-rate")),
+                    values.get("admin-email"),
+                    values.get("admin-password"),
+                    duration(values, "report-interval"),
+                    Path.of(values.get("output")));
+        }
+
+        private static Duration duration(Map<String, String> values, String name) {
+            return DurationStyle.detectAndParse(values.get(name));
+        }
+    }
+}
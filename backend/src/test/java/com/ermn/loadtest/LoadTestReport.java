@@ -0,0 +1,139 @@
+package com.ermn.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per operation. Latencies are recorded in microseconds into HdrHistogram
+ * recorders, so recording never blocks the load generating threads; {@link #printInterval}
+ * drains the recorders into the per-operation totals.
+ */
+final class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+    private final long startedNanos = System.nanoTime();
+    private long lastIntervalNanos = startedNanos;
+
+    void success(String operation, long latencyNanos) {
+        operation(operation).recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    void failure(String operation, String reason) {
+        operation(operation).errors.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts an event that has no latency of its own, such as a location update sent over STOMP.
+     */
+    void count(String operation) {
+        operation(operation).events.increment();
+    }
+
+    synchronized void printInterval(PrintStream out) {
+        long now = System.nanoTime();
+        double seconds = (now - lastIntervalNanos) / 1e9;
+        lastIntervalNanos = now;
+        out.printf("[%5ds]", TimeUnit.NANOSECONDS.toSeconds(now - startedNanos));
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Histogram interval = entry.getValue().drain();
+            if (interval.getTotalCount() > 0) {
+                out.printf("  %s %.1f/s p99 %.1f ms", entry.getKey(), interval.getTotalCount() / seconds,
+                        interval.getValueAtPercentile(99) / MICROS_PER_MILLI);
+            }
+        }
+        out.println();
+    }
+
+    synchronized void printSummary(PrintStream out) {
+        operations.values().forEach(Operation::drain);
+
+        out.println();
+        out.printf("%-18s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "rate/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "events/s");
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Operation operation = entry.getValue();
+            Histogram total = operation.total;
+            long errors = operation.errorCount();
+            long count = total.getTotalCount() + errors;
+            out.printf("%-18s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    count, count / operation.activeSeconds(), count == 0 ? 0.0 : 100.0 * errors / count,
+                    total.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    total.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    total.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    total.getMaxValue() / MICROS_PER_MILLI,
+                    operation.events.sum() / operation.activeSeconds());
+        }
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Map<String, Long> errors = new TreeMap<>();
+            entry.getValue().errors.forEach((reason, count) -> errors.put(reason, count.sum()));
+            if (!errors.isEmpty()) {
+                out.printf("errors %s: %s%n", entry.getKey(), errors);
+            }
+        }
+        out.printf("elapsed %s%n", Duration.ofNanos(System.nanoTime() - startedNanos).withNanos(0));
+    }
+
+    /**
+     * Writes one percentile distribution per operation ({@code <operation>.hgrm}, in milliseconds)
+     * that can be plotted with the HdrHistogram plotter.
+     */
+    synchronized void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            if (entry.getValue().total.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().total.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private Operation operation(String name) {
+        Operation operation = operations.computeIfAbsent(name, key -> new Operation());
+        operation.lastNanos = System.nanoTime();
+        return operation;
+    }
+
+    private static final class Operation {
+        private final Recorder recorder = new Recorder(3);
+        private final Histogram total = new Histogram(3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private final LongAdder events = new LongAdder();
+        private final long firstNanos = System.nanoTime();
+        private volatile long lastNanos = firstNanos;
+        private Histogram interval;
+
+        private Histogram drain() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+
+        /**
+         * Seconds from the first to the last call, so that rates are not diluted by the phases
+         * in which an operation does not run.
+         */
+        private double activeSeconds() {
+            return Math.max(1.0, (lastNanos - firstNanos) / 1e9);
+        }
+
+        private long errorCount() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ermn.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlBudgetChannelInterceptorTest {
+
+    private final List<String> endpoints = new ArrayList<>();
+    private SqlBudgetChannelInterceptor interceptor;
+    private SimpAnnotationMethodMessageHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        SqlBudgetTracker tracker = new SqlBudgetTracker(new SimpleMeterRegistry(), new MockEnvironment(), true, 20, 5);
+        tracker.addListener(usage -> endpoints.add(usage.endpoint()));
+        interceptor = new SqlBudgetChannelInterceptor(tracker);
+
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("trackingController", TrackingTestController.class);
+        context.refresh();
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+        handler = new SimpAnnotationMethodMessageHandler(channel, channel, new SimpMessagingTemplate(channel));
+        handler.setDestinationPrefixes(List.of("/app/"));
+        handler.setApplicationContext(context);
+        handler.afterPropertiesSet();
+    }
+
+    @Test
+    void messagesAreGroupedByTheMatchedPattern() {
+        handle("/app/tracking/update");
+        handle("/app/tracking/42/stop");
+        handle("/app/tracking/43/stop");
+
+        assertThat(endpoints).containsExactly(
+                "STOMP /app/tracking/update", "STOMP /app/tracking/{bookingId}/stop", "STOMP /app/tracking/{bookingId}/stop");
+    }
+
+    @Test
+    void destinationsWithoutAMessageMappingAreUnmapped() {
+        handle("/app/tracking/update/" + System.nanoTime());
+        handle("/app/trips");
+        handle("/topic/anything");
+
+        assertThat(endpoints).containsExactly("STOMP UNMAPPED", "STOMP UNMAPPED", "STOMP UNMAPPED");
+    }
+
+    @Test
+    void otherHandlersAreNotTracked() {
+        MessageHandler broker = message -> { };
+        Message<?> message = message("/app/tracking/update");
+        interceptor.beforeHandle(message, null, broker);
+        interceptor.afterMessageHandled(message, null, broker, null);
+
+        assertThat(endpoints).isEmpty();
+    }
+
+    private void handle(String destination) {
+        Message<?> message = message(destination);
+        interceptor.beforeHandle(message, null, handler);
+        interceptor.afterMessageHandled(message, null, handler, null);
+    }
+
+    private static Message<?> message(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Controller
+    static class TrackingTestController {
+
+        @MessageMapping("/tracking/update")
+        public void update() {
+        }
+
+        @MessageMapping("/tracking/{bookingId}/stop")
+        public void stop() {
+        }
+
+        @SubscribeMapping("/trips")
+        public String trips() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ermn.monitoring;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Records the {@link SqlUsage} of every request a test makes, for query count assertions:
+ * <pre>
+ * &#64;RegisterExtension
+ * SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+ * ...
+ * sqlBudget.assertStatementsAtMost("GET /api/hospitals", 3);
+ * </pre>
+ * Needs a Spring test context with the {@link SqlBudgetTracker}, and requests handled on the
+ * test thread, such as {@code MockMvc}.
+ */
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private final List<SqlUsage> usages = new CopyOnWriteArrayList<>();
+    private final Consumer<SqlUsage> listener = usages::add;
+    private SqlBudgetTracker tracker;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        usages.clear();
+        tracker = SpringExtension.getApplicationContext(context).getBean(SqlBudgetTracker.class);
+        tracker.addListener(listener);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        tracker.removeListener(listener);
+    }
+
+    public List<SqlUsage> usages(String endpoint) {
+        return usages.stream().filter(usage -> usage.endpoint().equals(endpoint)).toList();
+    }
+
+    public void assertStatementsAtMost(String endpoint, int maxStatements) {
+        List<SqlUsage> recorded = usages(endpoint);
+        if (recorded.isEmpty()) {
+            throw new AssertionError("No requests to " + endpoint + " were recorded");
+        }
+        for (SqlUsage usage : recorded) {
+            if (usage.statements() > maxStatements) {
+                throw new AssertionError(endpoint + " issued " + usage.statements()
+                        + " SQL statements, expected at most " + maxStatements);
+            }
+        }
+    }
+
+    public void assertNoRepeatedStatements(String endpoint) {
+        for (SqlUsage usage : usages(endpoint)) {
+            if (!usage.repeatedStatements().isEmpty()) {
+                throw new AssertionError(endpoint + " repeated statements: " + usage.repeatedStatements());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ermn.monitoring;
+
+import com.ermn.model.entity.Hospital;
+import com.ermn.repository.HospitalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Testcontainers
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlBudgetIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @RegisterExtension
+    SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlBudgetTracker tracker;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Test
+    void hospitalListingsLoadInventoriesInBulk() throws Exception {
+        mockMvc.perform(get("/api/hospitals")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/hospitals/{id}", hospitalRepository.findAll().get(0).getId()))
+                .andExpect(status().isOk());
+
+        sqlBudget.assertStatementsAtMost("GET /api/hospitals", 3);
+        sqlBudget.assertNoRepeatedStatements("GET /api/hospitals");
+        sqlBudget.assertStatementsAtMost("GET /api/hospitals/{id}", 3);
+    }
+
+    @Test
+    void repeatedStatementsAreReported() {
+        Long id = hospitalRepository.findAll().get(0).getId();
+
+        tracker.track("lookups", () -> {
+            for (int i = 0; i < 5; i++) {
+                Hospital hospital = hospitalRepository.findById(id).orElseThrow();
+                assertThat(hospital.getId()).isEqualTo(id);
+            }
+        });
+
+        assertThat(sqlBudget.usages("lookups")).singleElement().satisfies(usage -> {
+            assertThat(usage.statements()).isEqualTo(5);
+            assertThat(usage.entitiesLoaded()).isEqualTo(5);
+            assertThat(usage.repeatedStatements()).hasSize(1).containsValue(5);
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.ermn.repository;
+
+import com.ermn.model.entity.Ambulance;
+import com.ermn.model.entity.Hospital;
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.model.geo.Coordinate;
+import com.ermn.service.LocationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@SpringBootTest
+class SpatialQueryIntegrationTest {
+
+    private static final Coordinate LATITUDE = Coordinate.ofDegrees(12.9716);
+    private static final Coordinate LONGITUDE = Coordinate.ofDegrees(77.5946);
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private AmbulanceRepository ambulanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Test
+    void radiusAndNearestQueriesMatchHaversineDistances() {
+        List<Hospital> byDistance = hospitalRepository.findAll().stream()
+                .sorted(Comparator.comparingDouble(this::distanceKm))
+                .toList();
+        assertThat(byDistance).hasSizeGreaterThanOrEqualTo(3);
+
+        for (double radiusKm : new double[] {1, 6, 10, 1000}) {
+            List<Long> expected = byDistance.stream()
+                    .filter(hospital -> distanceKm(hospital) <= radiusKm)
+                    .map(Hospital::getId)
+                    .toList();
+            assertThat(hospitalRepository.findIdsWithinRadius(LATITUDE.degrees(), LONGITUDE.degrees(),
+                    locationService.boundingBox(LATITUDE, LONGITUDE, radiusKm), radiusKm * 1000, 100))
+                    .as("within %s km", radiusKm)
+                    .containsExactlyElementsOf(expected);
+        }
+
+        assertThat(hospitalRepository.findNearestIds(LATITUDE.degrees(), LONGITUDE.degrees(), 2))
+                .containsExactly(byDistance.get(0).getId(), byDistance.get(1).getId());
+    }
+
+    @Test
+    void ambulanceSearchSkipsAmbulancesWithoutLocation() {
+        Ambulance located = saveAmbulance("spatial-driver1@ermn.com", "KA-01-SP-0001",
+                Coordinate.ofDegrees(12.8959), Coordinate.ofDegrees(77.5983));
+        saveAmbulance("spatial-driver2@ermn.com", "KA-01-SP-0002", null, null);
+
+        assertThat(ambulanceRepository.findAvailableApprovedWithinRadius(LATITUDE.degrees(), LONGITUDE.degrees(),
+                locationService.boundingBox(LATITUDE, LONGITUDE, 5), 5000, 1)).isEmpty();
+        assertThat(ambulanceRepository.findAvailableApprovedWithinRadius(LATITUDE.degrees(), LONGITUDE.degrees(),
+                locationService.boundingBox(LATITUDE, LONGITUDE, 20), 20000, 1))
+                .extracting(Ambulance::getId).containsExactly(located.getId());
+        assertThat(ambulanceRepository.findNearestAvailableApproved(0, 0, 10))
+                .extracting(Ambulance::getId).containsExactly(located.getId());
+    }
+
+    private double distanceKm(Hospital hospital) {
+        return locationService.calculateDistance(LATITUDE, LONGITUDE, hospital.getLatitude(), hospital.getLongitude());
+    }
+
+    private Ambulance saveAmbulance(String email, String vehicleNumber, Coordinate latitude, Coordinate longitude) {
+        User driver = userRepository.save(User.builder()
+                .fullName("Spatial Driver")
+                .email(email)
+                .passwordHash("unused")
+                .phone("2222222222")
+                .role(Role.AMBULANCE_DRIVER)
+                .build());
+        return ambulanceRepository.save(Ambulance.builder()
+                .driver(driver)
+                .vehicleNumber(vehicleNumber)
+                .currentLatitude(latitude)
+                .currentLongitude(longitude)
+                .isApproved(true)
+                .build());
+    }
+}
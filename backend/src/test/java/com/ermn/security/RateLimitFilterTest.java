@@ -0,0 +1,232 @@
+package com.ermn.security;
+
+import com.ermn.exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<TooManyRequestsException> rejections = new ArrayList<>();
+    private final List<String> forwardedBodies = new ArrayList<>();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("ermn.rate-limit.auth", "2/1m")
+                .withProperty("ermn.rate-limit.auth.per-ip", "5/1m")
+                .withProperty("ermn.rate-limit.booking", "3/1m")
+                .withProperty("ermn.rate-limit.booking.per-ip", "4/1m");
+        HandlerExceptionResolver resolver = (request, response, handler, ex) -> {
+            rejections.add((TooManyRequestsException) ex);
+            response.setStatus(429);
+            return new ModelAndView();
+        };
+        filter = new RateLimitFilter(environment, resolver, new ObjectMapper(), true, 1000);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aFullBucketAllowsABurstOfItsPermits() {
+        RateLimitFilter.Limit limit = RateLimitFilter.Limit.parse("3/3s");
+        AtomicLong bucket = new AtomicLong(0);
+
+        assertThat(RateLimitFilter.acquire(bucket, limit, 0)).isEqualTo(2);
+        assertThat(RateLimitFilter.acquire(bucket, limit, 0)).isEqualTo(1);
+        assertThat(RateLimitFilter.acquire(bucket, limit, 0)).isEqualTo(0);
+        // Rejected until one interval has passed
+        assertThat(RateLimitFilter.acquire(bucket, limit, 0)).isEqualTo(-SECOND);
+        assertThat(RateLimitFilter.acquire(bucket, limit, SECOND / 4)).isEqualTo(-3 * SECOND / 4);
+    }
+
+    @Test
+    void permitsRefillOneIntervalAtATimeUpToTheBurst() {
+        RateLimitFilter.Limit limit = RateLimitFilter.Limit.parse("3/3s");
+        AtomicLong bucket = new AtomicLong(0);
+        for (int i = 0; i < 3; i++) {
+            RateLimitFilter.acquire(bucket, limit, 0);
+        }
+
+        assertThat(RateLimitFilter.acquire(bucket, limit, SECOND)).isEqualTo(0);
+        assertThat(RateLimitFilter.acquire(bucket, limit, SECOND)).isEqualTo(-SECOND);
+        // An idle bucket refills to the burst and no further
+        assertThat(RateLimitFilter.acquire(bucket, limit, 60 * SECOND)).isEqualTo(2);
+        assertThat(RateLimitFilter.acquire(bucket, limit, 60 * SECOND)).isEqualTo(1);
+    }
+
+    @Test
+    void responsesCarryTheLimitHeadersAndRejectionsARetryAfter() throws Exception {
+        authenticate("citizen@ermn.com");
+        MockHttpServletResponse first = post("/api/bookings", "10.0.0.1", null);
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader("X-RateLimit-Limit")).isEqualTo("3");
+        assertThat(first.getHeader("X-RateLimit-Remaining")).isEqualTo("2");
+        assertThat(first.getHeader("X-RateLimit-Reset")).isEqualTo("20");
+
+        post("/api/bookings", "10.0.0.1", null);
+        post("/api/bookings", "10.0.0.1", null);
+        MockHttpServletResponse rejected = post("/api/bookings", "10.0.0.1", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(rejected.getHeader("X-RateLimit-Reset")).isEqualTo("20");
+        assertThat(rejections).singleElement()
+                .extracting(TooManyRequestsException::getRetryAfterSeconds).isEqualTo(20L);
+    }
+
+    @Test
+    void usersAreAlsoLimitedByTheirClientAddress() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            authenticate("citizen" + i + "@ermn.com");
+            assertThat(post("/api/bookings", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+        authenticate("citizen4@ermn.com");
+        MockHttpServletResponse rejected = post("/api/bookings", "10.0.0.1", null);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("X-RateLimit-Limit")).isEqualTo("4");
+        assertThat(post("/api/bookings", "10.0.0.2", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void signInsAreKeyedOnClientAddressAndSubmittedEmail() throws Exception {
+        String noisy = "{\"email\":\"noisy@ermn.com\",\"password\":\"wrong\"}";
+        assertThat(post("/api/auth/login", "10.0.0.1", noisy).getStatus()).isEqualTo(200);
+        assertThat(post("/api/auth/login", "10.0.0.1", noisy).getStatus()).isEqualTo(200);
+        assertThat(post("/api/auth/login", "10.0.0.1", noisy.replace("noisy", "NOISY")).getStatus()).isEqualTo(429);
+
+        // Another user behind the same address can still sign in, until the address itself is limited
+        String other = "{\"email\":\"other@ermn.com\",\"password\":\"secret\"}";
+        assertThat(post("/api/auth/login", "10.0.0.1", other).getStatus()).isEqualTo(200);
+        assertThat(post("/api/auth/login", "10.0.0.1", other).getStatus()).isEqualTo(200);
+        assertThat(post("/api/auth/login", "10.0.0.1", "{\"email\":\"third@ermn.com\"}").getStatus()).isEqualTo(200);
+        assertThat(post("/api/auth/login", "10.0.0.1", "{\"email\":\"fourth@ermn.com\"}").getStatus()).isEqualTo(429);
+
+        // The controller still reads the full body
+        assertThat(forwardedBodies).startsWith(noisy, noisy).contains(other);
+    }
+
+    @Test
+    void authCallsWithoutAnEmailFallBackToTheAddressLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(post("/api/auth/refresh", "10.0.0.1", "{\"refreshToken\":\"t\"}").getStatus()).isEqualTo(200);
+        }
+        assertThat(post("/api/auth/refresh", "10.0.0.1", "{\"refreshToken\":\"t\"}").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void aBodyLongerThanTheBufferIsReadThroughOneStreamToItsEnd() throws Exception {
+        String body = "{\"email\":\"long@ermn.com\",\"padding\":\"" + "x".repeat(10_000) + "\"}";
+        List<Boolean> checks = new ArrayList<>();
+
+        post("/api/auth/register", "10.0.0.1", body, (req, res) -> {
+            ServletInputStream stream = req.getInputStream();
+            checks.add(stream == req.getInputStream());
+            byte[] start = stream.readNBytes(100);
+            checks.add(!stream.isFinished());
+            checks.add(stream == req.getInputStream());
+            byte[] end = stream.readAllBytes();
+            checks.add(stream.isFinished());
+            forwardedBodies.add(new String(start, StandardCharsets.UTF_8) + new String(end, StandardCharsets.UTF_8));
+        });
+
+        assertThat(checks).containsOnly(true).hasSize(4);
+        assertThat(forwardedBodies).containsExactly(body);
+    }
+
+    @Test
+    void aBufferedBodyIsHandedToAReadListenerOfAnAsyncRequest() throws Exception {
+        String body = "{\"email\":\"async@ermn.com\",\"password\":\"secret\"}";
+        List<String> events = new ArrayList<>();
+
+        post("/api/auth/login", "10.0.0.1", body, (req, res) -> {
+            ServletInputStream stream = req.getInputStream();
+            assertThatThrownBy(() -> stream.setReadListener(new RecordingListener(stream, events)))
+                    .isInstanceOf(IllegalStateException.class);
+            req.startAsync();
+            stream.setReadListener(new RecordingListener(stream, events));
+        });
+
+        assertThat(events).containsExactly("data: " + body, "all read");
+    }
+
+    private MockHttpServletResponse post(String uri, String remoteAddress, String body) throws Exception {
+        return post(uri, remoteAddress, body, (req, res) -> {
+            if (body != null) {
+                forwardedBodies.add(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private MockHttpServletResponse post(String uri, String remoteAddress, String body, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddress);
+        request.setAsyncSupported(true);
+        if (body != null) {
+            request.setContentType("application/json");
+            request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private record RecordingListener(ServletInputStream stream, List<String> events) implements ReadListener {
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            StringBuilder data = new StringBuilder();
+            byte[] buffer = new byte[16];
+            int read;
+            while (stream.isReady() && (read = stream.read(buffer)) != -1) {
+                data.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            events.add("data: " + data);
+        }
+
+        @Override
+        public void onAllDataRead() {
+            events.add("all read");
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            events.add("error: " + t);
+        }
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_CITIZEN"))));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ermn.security;
+
+import com.ermn.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevokedTokenFamiliesTest {
+
+    private static final long SYNC_INTERVAL_MILLIS = 30_000;
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RevokedTokenFamilies revokedTokenFamilies;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.findRevokedFamiliesSince(any(), any())).thenReturn(List.of());
+        revokedTokenFamilies = new RevokedTokenFamilies(refreshTokenRepository, new SimpleMeterRegistry(),
+                4, 0.01, SYNC_INTERVAL_MILLIS);
+    }
+
+    @Test
+    void familiesRevokedThroughOtherInstancesArePickedUpBySync() {
+        UUID family = UUID.randomUUID();
+        assertThat(revokedTokenFamilies.isRevoked(family)).isFalse();
+        when(refreshTokenRepository.findRevokedFamiliesSince(any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {family, LocalDateTime.now().plusDays(1)}));
+
+        revokedTokenFamilies.sync();
+
+        assertThat(revokedTokenFamilies.isRevoked(family)).isTrue();
+        assertThat(revokedTokenFamilies.isRevoked(UUID.randomUUID())).isFalse();
+        assertThat(revokedTokenFamilies.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void eachSyncReachesBackOverTwoIntervals() {
+        revokedTokenFamilies.sync();
+        revokedTokenFamilies.sync();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(refreshTokenRepository, times(2)).findRevokedFamiliesSince(since.capture(), now.capture());
+        // Revocations that commit late are re-read instead of slipping between two syncs
+        assertThat(since.getAllValues().get(1))
+                .isEqualTo(now.getAllValues().get(0).minus(Duration.ofMillis(2 * SYNC_INTERVAL_MILLIS)));
+    }
+
+    @Test
+    void expiredFamiliesAreDropped() {
+        UUID expired = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        revokedTokenFamilies.revoke(expired, LocalDateTime.now().minusSeconds(1));
+        revokedTokenFamilies.revoke(live, LocalDateTime.now().plusDays(1));
+        assertThat(revokedTokenFamilies.isRevoked(expired)).isTrue();
+
+        revokedTokenFamilies.sync();
+
+        assertThat(revokedTokenFamilies.isRevoked(expired)).isFalse();
+        assertThat(revokedTokenFamilies.isRevoked(live)).isTrue();
+    }
+
+    @Test
+    void theFilterGrowsBeyondItsExpectedEntries() {
+        List<UUID> families = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            UUID family = UUID.randomUUID();
+            families.add(family);
+            revokedTokenFamilies.revoke(family, LocalDateTime.now().plusDays(1));
+        }
+
+        revokedTokenFamilies.sync();
+
+        assertThat(families).allMatch(revokedTokenFamilies::isRevoked);
+        long falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (revokedTokenFamilies.isRevoked(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isZero();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ermn.security;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.RefreshTokenRepository;
+import com.ermn.service.UserCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthenticationInterceptorTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private JwtTokenProvider tokenProvider;
+    private UserCacheService userCacheService;
+    private StompAuthenticationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 60_000, 60_000, 100, Duration.ofMinutes(1));
+        userCacheService = mock(UserCacheService.class);
+        when(userCacheService.findByEmail(any())).thenReturn(Optional.empty());
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.findRevokedFamiliesSince(any(), any())).thenReturn(List.of());
+        RevokedTokenFamilies revokedTokenFamilies = new RevokedTokenFamilies(refreshTokenRepository,
+                new SimpleMeterRegistry(), 4, 0.01, 30_000);
+        interceptor = new StompAuthenticationInterceptor(
+                new JwtAuthenticationFilter(tokenProvider, userCacheService, revokedTokenFamilies));
+    }
+
+    @Test
+    void connectWithAnAccessTokenAuthenticatesTheSessionAsItsUser() {
+        activeUser("citizen@ermn.com", Role.CITIZEN);
+
+        Message<?> connect = connect("Bearer " + accessToken("citizen@ermn.com", Role.CITIZEN));
+        Principal user = userOf(interceptor.preSend(connect, null));
+
+        assertThat(user).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(user.getName()).isEqualTo("citizen@ermn.com");
+    }
+
+    @Test
+    void connectWithoutATokenStaysAnonymous() {
+        assertThat(userOf(interceptor.preSend(connect(null), null))).isNull();
+    }
+
+    @Test
+    void connectWithATokenThatDoesNotResolveToAnActiveUserIsRefused() {
+        activeUser("citizen@ermn.com", Role.CITIZEN);
+        JwtTokenProvider otherKey = new JwtTokenProvider(SECRET.replace("test", "fake"), 60_000, 60_000, 100,
+                Duration.ofMinutes(1));
+        String forged = accessToken(otherKey, "citizen@ermn.com", Role.CITIZEN);
+        assertThatThrownBy(() -> interceptor.preSend(connect("Bearer " + forged), null))
+                .isInstanceOf(AccessDeniedException.class);
+        when(userCacheService.findByEmail("citizen@ermn.com")).thenReturn(Optional.empty());
+
+        // Signed, but the user has been deactivated
+        String token = accessToken("citizen@ermn.com", Role.CITIZEN);
+        assertThatThrownBy(() -> interceptor.preSend(connect("Bearer " + token), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void roleNotificationsCanOnlyBeFollowedWithThatRole() {
+        Principal admin = authenticated("admin@ermn.com", Role.SUPER_ADMIN);
+
+        assertThat(interceptor.preSend(subscribe(admin, "/topic/notifications/role/SUPER_ADMIN"), null)).isNotNull();
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(admin, "/topic/notifications/role/HOSPITAL_ADMIN"), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(null, "/topic/notifications/role/SUPER_ADMIN"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void otherNotificationTopicsQueuesAndPatternsAreRefused() {
+        Principal citizen = authenticated("citizen@ermn.com", Role.CITIZEN);
+
+        for (String destination : List.of("/topic/notifications/42", "/queue/notifications-user1234",
+                "/topic/**", "/topic/notifications/role/*", "/topic/{anything}/role/CITIZEN")) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe(citizen, destination), null))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+    @Test
+    void publicTopicsAndUserQueuesStayOpen() {
+        Principal citizen = authenticated("citizen@ermn.com", Role.CITIZEN);
+
+        assertThat(interceptor.preSend(subscribe(null, "/topic/tracking/7"), null)).isNotNull();
+        assertThat(interceptor.preSend(subscribe(citizen, "/user/queue/notifications"), null)).isNotNull();
+    }
+
+    private static Principal authenticated(String email, Role role) {
+        return new UsernamePasswordAuthenticationToken(email, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private static Message<?> subscribe(Principal user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setUser(user);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private void activeUser(String email, Role role) {
+        when(userCacheService.findByEmail(email)).thenReturn(Optional.of(User.builder()
+                .email(email)
+                .role(role)
+                .build()));
+    }
+
+    private String accessToken(String email, Role role) {
+        return accessToken(tokenProvider, email, role);
+    }
+
+    private static String accessToken(JwtTokenProvider tokenProvider, String email, Role role) {
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(
+                org.springframework.security.core.userdetails.User.withUsername(email)
+                        .password("")
+                        .authorities(new SimpleGrantedAuthority("ROLE_" + role))
+                        .build(),
+                null), UUID.randomUUID());
+    }
+
+    private static Message<?> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Principal userOf(Message<?> message) {
+        return MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class).getUser();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ermn.service;
+
+import com.ermn.model.dto.response.BookingExportRow;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.enums.ExportFormat;
+import com.ermn.model.geo.Coordinate;
+import com.ermn.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingExportServiceTest {
+
+    @Test
+    void csvCellsThatSpreadsheetsWouldEvaluateAreWrittenAsText() throws Exception {
+        LocalDateTime requestedAt = LocalDateTime.of(2026, 3, 1, 10, 0);
+        BookingExportRow row = new BookingExportRow(1L, BookingStatus.COMPLETED, requestedAt, null, null, requestedAt,
+                Coordinate.ofDegrees(-12.5), Coordinate.ofDegrees(77.59), null, null,
+                2L, "=HYPERLINK(\"http://evil\",\"x\")", "+citizen@ermn.com", "-5555555555",
+                3L, "@SUM(A1)", 4L, "\tDriver");
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.streamForExport(any(), any(), any())).thenReturn(Stream.of(row));
+        StringWriter out = new StringWriter();
+
+        new BookingExportService(bookingRepository, new ObjectMapper())
+                .exportBookings(ExportFormat.CSV, requestedAt, requestedAt.plusDays(1), null, out);
+
+        assertThat(out.toString().split("\n")[1]).isEqualTo("1,COMPLETED,2026-03-01T10:00,,,2026-03-01T10:00," +
+                "-12.5,77.59,,,2,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",'+citizen@ermn.com,'-5555555555," +
+                "3,'@SUM(A1),4,'\tDriver");
+    }
+}
@@ -0,0 +1,101 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.Booking;
+import com.ermn.model.enums.BookingStatus;
+import com.ermn.model.geo.Coordinate;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A booking is inserted before the application starts, so the rollups are empty while bookings
+ * are not and the startup backfill has to rebuild them.
+ */
+@Testcontainers
+@SpringBootTest
+class BookingRollupIntegrationTest {
+
+    private static final LocalDateTime HISTORY = LocalDateTime.now().minusDays(3).withHour(10).withMinute(15)
+            .withSecond(0).withNano(0);
+    private static final LocalDateTime LIVE = LocalDateTime.now().minusDays(2).withHour(14).withMinute(20)
+            .withSecond(0).withNano(0);
+    // Region of the pickup point below, a 0.1 degree grid cell
+    private static final String REGION = "129:775";
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("ermn.data-seeder.enabled", () -> "false");
+    }
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void insertHistory() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, email, password_hash, full_name, phone, role) " +
+                "VALUES (1000, 'rollup@ermn.com', 'unused', 'Rollup', '3333333333', 'CITIZEN')");
+        jdbc.update("INSERT INTO bookings (citizen_id, pickup_latitude, pickup_longitude, status, requested_at, assigned_at) " +
+                "VALUES (1000, 12.97, 77.59, 'COMPLETED', ?, ?)", HISTORY, HISTORY.plusSeconds(300));
+    }
+
+    @Test
+    void startupBackfillRebuildsEmptyRollups() {
+        assertThat(rollup(HISTORY.withMinute(0), BookingStatus.COMPLETED)).containsExactly(1L, 300L, 1L);
+    }
+
+    @Test
+    void createdBookingsAndTransitionsMoveBetweenStatusBuckets() {
+        Booking booking = Booking.builder()
+                .pickupLatitude(Coordinate.ofDegrees(12.97))
+                .pickupLongitude(Coordinate.ofDegrees(77.59))
+                .status(BookingStatus.ASSIGNED)
+                .requestedAt(LIVE)
+                .assignedAt(LIVE.plusSeconds(120))
+                .build();
+
+        bookingRollupService.recordCreated(booking);
+        assertThat(rollup(LIVE.withMinute(0), BookingStatus.ASSIGNED)).containsExactly(1L, 120L, 1L);
+
+        booking.setStatus(BookingStatus.EN_ROUTE);
+        bookingRollupService.recordTransition(booking, BookingStatus.ASSIGNED);
+        assertThat(rollup(LIVE.withMinute(0), BookingStatus.ASSIGNED)).containsExactly(0L, 0L, 0L);
+        assertThat(rollup(LIVE.withMinute(0), BookingStatus.EN_ROUTE)).containsExactly(1L, 120L, 1L);
+    }
+
+    private List<Long> rollup(LocalDateTime bucketStart, BookingStatus status) {
+        return jdbcTemplate.queryForObject("SELECT booking_count, response_time_sum, response_time_count " +
+                        "FROM booking_rollups WHERE bucket_start = ? AND status = ? AND region_key = ?",
+                (rs, row) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3)),
+                bucketStart, status.name(), REGION);
+    }
+}
@@ -0,0 +1,141 @@
+package com.ermn.service;
+
+import com.ermn.model.enums.NotificationType;
+import com.ermn.model.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dispatcher is only run by the tests: its schedule is set to an hour, so after the first
+ * run at startup it does not drain the outbox behind the tests' backs.
+ */
+@Testcontainers
+@SpringBootTest
+class NotificationOutboxIntegrationTest {
+
+    private static final long CITIZEN_ID = 2000;
+    private static final long MISSING_USER_ID = 2999;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("ermn.outbox.poll-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private NotificationOutboxService outboxService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void resetTables() {
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", CITIZEN_ID);
+        jdbcTemplate.update("INSERT IGNORE INTO users (id, email, password_hash, full_name, phone, role) " +
+                "VALUES (?, 'outbox@ermn.com', 'unused', 'Outbox', '4444444444', 'CITIZEN')", CITIZEN_ID);
+    }
+
+    @Test
+    void eventsAreDeliveredOnlyOnceTheirTransactionCommits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> outboxService.publish(CITIZEN_ID, "Committed", "Committed",
+                NotificationType.BOOKING_UPDATE));
+        transaction.executeWithoutResult(status -> {
+            outboxService.publish(CITIZEN_ID, "Rolled back", "Rolled back", NotificationType.BOOKING_UPDATE);
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxTitles()).containsExactly("Committed");
+        assertThat(notificationTitles(CITIZEN_ID)).isEmpty();
+
+        outboxService.dispatch();
+
+        assertThat(outboxTitles()).isEmpty();
+        assertThat(notificationTitles(CITIZEN_ID)).containsExactly("Committed");
+    }
+
+    @Test
+    void roleEventsNotifyEveryActiveUserWithTheRole() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxService.publishToRole(
+                Role.SUPER_ADMIN, "Shortage", "Shortage", NotificationType.BLOOD_SHORTAGE));
+
+        outboxService.dispatch();
+
+        List<Long> superAdmins = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE role = 'SUPER_ADMIN' AND is_active = TRUE", Long.class);
+        assertThat(superAdmins).isNotEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT user_id FROM notifications WHERE title = 'Shortage'", Long.class))
+                .containsExactlyInAnyOrderElementsOf(superAdmins);
+    }
+
+    @Test
+    void aFailingEventIsRescheduledWithoutHoldingBackTheRestOfItsBatch() {
+        // An event for a user that does not exist can only get in with foreign key checks off
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            LocalDateTime raised = LocalDateTime.now().minusSeconds(1);
+            try (Statement statement = connection.createStatement();
+                 PreparedStatement insert = connection.prepareStatement("INSERT INTO notification_outbox " +
+                         "(user_id, type, title, message, available_at, created_at) " +
+                         "VALUES (?, 'SYSTEM_ALERT', 'Failing', 'Failing', ?, ?)")) {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                insert.setLong(1, MISSING_USER_ID);
+                insert.setObject(2, raised);
+                insert.setObject(3, raised);
+                insert.executeUpdate();
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+            return null;
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxService.publish(
+                CITIZEN_ID, "Delivered", "Delivered", NotificationType.SYSTEM_ALERT));
+
+        outboxService.dispatch();
+
+        assertThat(notificationTitles(CITIZEN_ID)).containsExactly("Delivered");
+        Map<String, Object> failing = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error, available_at > created_at AS backing_off FROM notification_outbox");
+        assertThat(failing.get("attempts")).isEqualTo(1);
+        assertThat((String) failing.get("last_error")).contains("User not found");
+        assertThat(((Number) failing.get("backing_off")).intValue()).isEqualTo(1);
+    }
+
+    private List<String> outboxTitles() {
+        return jdbcTemplate.queryForList("SELECT title FROM notification_outbox ORDER BY id", String.class);
+    }
+
+    private List<String> notificationTitles(long userId) {
+        return jdbcTemplate.queryForList("SELECT title FROM notifications WHERE user_id = ? ORDER BY id",
+                String.class, userId);
+    }
+}
@@ -0,0 +1,188 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.ExportFormat;
+import com.ermn.monitoring.SqlBudgetTracker;
+import com.ermn.monitoring.SqlUsage;
+import com.ermn.repository.NotificationRepository;
+import com.ermn.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * History is inserted before the application starts, so the startup run of the maintenance job
+ * splits it into monthly partitions and archives what is older than the retention window.
+ */
+@Testcontainers
+@SpringBootTest
+class PartitionMaintenanceIntegrationTest {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+    private static final YearMonth NOW = YearMonth.now();
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("ermn_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("ermn.partitioning.months-ahead", () -> "2");
+        registry.add("ermn.partitioning.bookings.retention-months", () -> "12");
+        registry.add("ermn.partitioning.notifications.retention-months", () -> "3");
+        // Every statement counts as repeated, so that listeners see the SQL Hibernate generated
+        registry.add("ermn.sql-budget.repeat-threshold", () -> "1");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlBudgetTracker sqlBudgetTracker;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    static void insertHistory() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, email, password_hash, full_name, phone, role) " +
+                "VALUES (1000, 'history@ermn.com', 'unused', 'History', '3333333333', 'CITIZEN')");
+        for (int monthsAgo : new int[] {14, 5, 0}) {
+            jdbc.update("INSERT INTO bookings (id, citizen_id, pickup_latitude, pickup_longitude, status, requested_at) " +
+                    "VALUES (?, 1000, 12.97, 77.59, 'COMPLETED', ?)", 100 + monthsAgo, midMonth(monthsAgo));
+            jdbc.update("INSERT INTO notifications (id, user_id, title, message, type, created_at) " +
+                    "VALUES (?, 1000, 'History', 'History', 'SYSTEM_ALERT', ?)", 100 + monthsAgo, midMonth(monthsAgo));
+        }
+    }
+
+    @Test
+    void partitionsRollForwardAndExpiredOnesAreArchived() {
+        assertThat(partitions("bookings"))
+                .startsWith(partition(NOW.minusMonths(12)))
+                .endsWith(partition(NOW.plusMonths(2)), "p_future")
+                .hasSize(12 + 2 + 2);
+        assertThat(partitions("notifications"))
+                .startsWith(partition(NOW.minusMonths(3)))
+                .endsWith(partition(NOW.plusMonths(2)), "p_future")
+                .hasSize(3 + 2 + 2);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings WHERE citizen_id = 1000", Long.class))
+                .containsExactlyInAnyOrder(105L, 100L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings_archive", Long.class)).containsExactly(114L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications_archive", Long.class))
+                .containsExactlyInAnyOrder(114L, 105L);
+    }
+
+    @Test
+    void timeBoundedQueriesArePruned() {
+        // Bounds stay clear of month edges so that time zone differences between the JVM and
+        // MySQL cannot move them into a neighbouring partition
+        YearMonth fiveMonthsAgo = NOW.minusMonths(5);
+        LocalDateTime from = fiveMonthsAgo.atDay(2).atStartOfDay();
+        LocalDateTime to = fiveMonthsAgo.atDay(27).atStartOfDay();
+        String exportSql = generatedSql("bookings", () -> export(from, to));
+        assertThat(explainPartitions(exportSql, from, to, null, null)).isEqualTo(partition(fiveMonthsAgo));
+
+        User user = userRepository.findById(1000L).orElseThrow();
+        LocalDateTime since = NOW.atDay(2).atStartOfDay();
+        String notificationsSql = generatedSql("notifications",
+                () -> notificationRepository.findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(user, since));
+        assertThat(explainPartitions(notificationsSql, 1000, since))
+                .isEqualTo(String.join(",", partition(NOW), partition(NOW.plusMonths(1)),
+                        partition(NOW.plusMonths(2)), "p_future"));
+    }
+
+    @Test
+    void exportsWithoutBoundsStayWithinTheTimestampRange() {
+        String exportSql = generatedSql("bookings", () -> export(null, null));
+        // Bounds outside the TIMESTAMP range keep MySQL from pruning by them
+        assertThat(explainPartitions(exportSql, BookingExportService.EARLIEST, NOW.atDay(2).atStartOfDay(), null, null))
+                .doesNotContain("p_future");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE citizen_id = 1000 AND requested_at >= ? AND requested_at < ?",
+                Long.class, BookingExportService.EARLIEST, BookingExportService.LATEST)).isEqualTo(2L);
+    }
+
+    private void export(LocalDateTime from, LocalDateTime to) {
+        try {
+            bookingExportService.exportBookings(ExportFormat.CSV, from, to, null, new StringWriter());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The one statement on {@code table} that Hibernate issued while running {@code work}.
+     */
+    private String generatedSql(String table, Runnable work) {
+        List<String> statements = new CopyOnWriteArrayList<>();
+        Consumer<SqlUsage> listener = usage -> statements.addAll(usage.repeatedStatements().keySet());
+        sqlBudgetTracker.addListener(listener);
+        try {
+            sqlBudgetTracker.track("partition-pruning-test", work);
+        } finally {
+            sqlBudgetTracker.removeListener(listener);
+        }
+        return statements.stream()
+                .filter(sql -> sql.contains(" from " + table + " "))
+                .reduce((first, second) -> {
+                    throw new AssertionError("More than one statement on " + table + ": " + statements);
+                })
+                .orElseThrow(() -> new AssertionError("No statement on " + table + ": " + statements));
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+    }
+
+    private String explainPartitions(String sql, Object... args) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+        return (String) plan.get(0).get("partitions");
+    }
+
+    private static LocalDateTime midMonth(int monthsAgo) {
+        return NOW.minusMonths(monthsAgo).atDay(15).atTime(12, 0);
+    }
+
+    private static String partition(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+}
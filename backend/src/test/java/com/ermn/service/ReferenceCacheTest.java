@@ -0,0 +1,140 @@
+package com.ermn.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReferenceCacheTest {
+
+    private final Map<Long, String> rows = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Long> changedElsewhere = new ArrayList<>();
+    private Runnable duringLoad = () -> { };
+
+    @Test
+    void snapshotsAreServedFromTheCacheUntilEvicted() {
+        ReferenceCache<String> cache = cache(Duration.ofMinutes(10));
+        rows.put(1L, "City Hospital");
+
+        assertThat(cache.get(1L)).contains("City Hospital");
+        rows.put(1L, "City Hospital North");
+        assertThat(cache.get(1L)).contains("City Hospital");
+        assertThat(loads).hasValue(1);
+
+        cache.evict(1L);
+        assertThat(cache.get(1L)).contains("City Hospital North");
+    }
+
+    @Test
+    void aLoadOverlappingAnEvictionIsNotCached() {
+        ReferenceCache<String> cache = cache(Duration.ofMinutes(10));
+        rows.put(1L, "before");
+        duringLoad = () -> {
+            duringLoad = () -> { };
+            rows.put(1L, "after");
+            cache.evict(1L);
+        };
+
+        assertThat(cache.get(1L)).contains("before");
+        assertThat(cache.get(1L)).contains("after");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void changesThroughOtherInstancesAreEvictedBySync() {
+        ReferenceCache<String> cache = cache(Duration.ofMinutes(10));
+        rows.put(1L, "City Hospital");
+        rows.put(2L, "Lake Hospital");
+        assertThat(cache.getAll()).containsExactly("City Hospital", "Lake Hospital");
+
+        rows.put(2L, "Lake Hospital (ICU full)");
+        rows.put(3L, "Hill Hospital");
+        changedElsewhere.addAll(List.of(2L, 3L));
+        assertThat(cache.getAll()).containsExactly("City Hospital", "Lake Hospital");
+
+        cache.evictChanged();
+        assertThat(cache.getAll()).containsExactly("City Hospital", "Lake Hospital (ICU full)", "Hill Hospital");
+    }
+
+    @Test
+    void entriesExpireInCaseAChangeIsMissed() throws InterruptedException {
+        ReferenceCache<String> cache = cache(Duration.ofMillis(50));
+        rows.put(1L, "City Hospital");
+        assertThat(cache.getAll()).containsExactly("City Hospital");
+
+        rows.put(1L, "City Hospital North");
+        rows.put(2L, "Lake Hospital");
+        Thread.sleep(100);
+
+        assertThat(cache.get(1L)).contains("City Hospital North");
+        assertThat(cache.getAll()).containsExactly("City Hospital North", "Lake Hospital");
+    }
+
+    @Test
+    void noSnapshotOlderThanTheLastEvictionSurvivesConcurrentLoads() throws InterruptedException {
+        ReferenceCache<String> cache = cache(Duration.ofMinutes(10));
+        rows.put(1L, "v0");
+        AtomicBoolean updating = new AtomicBoolean(true);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread reader = new Thread(() -> {
+                while (updating.get()) {
+                    cache.get(1L);
+                    cache.getAll();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int version = 1; version <= 20_000; version++) {
+            rows.put(1L, "v" + version);
+            cache.evict(1L);
+        }
+        updating.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(cache.get(1L)).contains("v20000");
+        assertThat(cache.getAll()).containsExactly("v20000");
+    }
+
+    private ReferenceCache<String> cache(Duration ttl) {
+        return new ReferenceCache<>("test", 100, ttl, Duration.ofSeconds(10), new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), this::load, () -> load(rows.keySet()), this::changedSince);
+    }
+
+    private Map<Long, String> load(Collection<Long> ids) {
+        loads.incrementAndGet();
+        Map<Long, String> loaded = new TreeMap<>();
+        for (Long id : ids) {
+            String row = rows.get(id);
+            if (row != null) {
+                loaded.put(id, row);
+            }
+        }
+        duringLoad.run();
+        return loaded;
+    }
+
+    private Collection<Long> changedSince(LocalDateTime since) {
+        List<Long> changed = List.copyOf(changedElsewhere);
+        changedElsewhere.clear();
+        return changed;
+    }
+}
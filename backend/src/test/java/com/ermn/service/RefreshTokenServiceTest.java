@@ -0,0 +1,117 @@
+package com.ermn.service;
+
+import com.ermn.exception.CustomException;
+import com.ermn.model.entity.RefreshToken;
+import com.ermn.repository.RefreshTokenRepository;
+import com.ermn.security.JwtTokenProvider;
+import com.ermn.security.RevokedTokenFamilies;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final UUID TOKEN_ID = UUID.randomUUID();
+    private static final UUID FAMILY_ID = UUID.randomUUID();
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RevokedTokenFamilies revokedTokenFamilies;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        revokedTokenFamilies = new RevokedTokenFamilies(refreshTokenRepository, new SimpleMeterRegistry(),
+                1000, 0.01, 30_000);
+        JwtTokenProvider tokenProvider = new JwtTokenProvider("a-test-secret-that-is-long-enough-for-hs512-" +
+                "signatures-0123456789abcdef0123456789abcdef", 900_000, 604_800_000, 100, Duration.ofMinutes(5));
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, tokenProvider, revokedTokenFamilies);
+    }
+
+    @Test
+    void anUnusedTokenIsRotatedOnce() {
+        when(refreshTokenRepository.markRotated(eq(TOKEN_ID), any())).thenReturn(1);
+
+        refreshTokenService.rotate(TOKEN_ID, FAMILY_ID);
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        assertThat(revokedTokenFamilies.isRevoked(FAMILY_ID)).isFalse();
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesItsFamily() {
+        when(refreshTokenRepository.markRotated(eq(TOKEN_ID), any())).thenReturn(0);
+        when(refreshTokenRepository.findById(TOKEN_ID)).thenReturn(Optional.of(token(LocalDateTime.now(), null)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN_ID, FAMILY_ID))
+                .isInstanceOf(CustomException.class)
+                .hasMessageContaining("reuse detected");
+
+        verify(refreshTokenRepository).revokeFamily(eq(FAMILY_ID), any());
+        assertThat(revokedTokenFamilies.isRevoked(FAMILY_ID)).isTrue();
+    }
+
+    @Test
+    void tokensOfARevokedFamilyAreRejectedWithoutTouchingTheDatabase() {
+        revokedTokenFamilies.revoke(FAMILY_ID, LocalDateTime.now().plusDays(1));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN_ID, FAMILY_ID))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Refresh token has been revoked");
+
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+    }
+
+    @Test
+    void aTokenRevokedThroughAnotherInstanceIsRejectedWithoutRevokingAgain() {
+        when(refreshTokenRepository.markRotated(eq(TOKEN_ID), any())).thenReturn(0);
+        LocalDateTime revokedAt = LocalDateTime.now().minusMinutes(1);
+        when(refreshTokenRepository.findById(TOKEN_ID)).thenReturn(Optional.of(token(revokedAt, revokedAt)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN_ID, FAMILY_ID))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Refresh token has been revoked");
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void unknownOrExpiredTokensAreRejected() {
+        when(refreshTokenRepository.markRotated(eq(TOKEN_ID), any())).thenReturn(0);
+        when(refreshTokenRepository.findById(TOKEN_ID)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN_ID, FAMILY_ID))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Invalid or expired refresh token");
+
+        when(refreshTokenRepository.findById(TOKEN_ID)).thenReturn(Optional.of(token(null, null)));
+        assertThatThrownBy(() -> refreshTokenService.rotate(TOKEN_ID, FAMILY_ID))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("Invalid or expired refresh token");
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    private static RefreshToken token(LocalDateTime rotatedAt, LocalDateTime revokedAt) {
+        return RefreshToken.builder()
+                .id(TOKEN_ID)
+                .familyId(FAMILY_ID)
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .rotatedAt(rotatedAt)
+                .revokedAt(revokedAt)
+                .build();
+    }
+}
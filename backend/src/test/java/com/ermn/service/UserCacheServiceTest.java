@@ -0,0 +1,85 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheServiceTest {
+
+    private final User citizen = User.builder()
+            .id(7L)
+            .email("citizen@ermn.com")
+            .fullName("Citizen")
+            .phone("5555555555")
+            .role(Role.CITIZEN)
+            .isActive(true)
+            .build();
+
+    private UserRepository userRepository;
+    private UserCacheService userCacheService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(citizen.getEmail())).thenReturn(Optional.of(citizen));
+        when(userRepository.findIdsAndEmailsUpdatedSince(any())).thenReturn(List.of());
+        userCacheService = new UserCacheService(userRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void usersChangedThroughOtherInstancesAreEvictedOnSync() {
+        assertThat(userCacheService.findByEmail(citizen.getEmail())).isPresent();
+        assertThat(userCacheService.findByEmail(citizen.getEmail())).isPresent();
+        verify(userRepository, times(1)).findByEmail(citizen.getEmail());
+
+        // Deactivated on another instance
+        User deactivated = User.builder().id(7L).email(citizen.getEmail()).role(Role.CITIZEN).isActive(false).build();
+        when(userRepository.findByEmail(citizen.getEmail())).thenReturn(Optional.of(deactivated));
+        when(userRepository.findIdsAndEmailsUpdatedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[] {7L, citizen.getEmail()}));
+        userCacheService.evictChangedUsers();
+
+        assertThat(userCacheService.findByEmail(citizen.getEmail())).get()
+                .extracting(User::getIsActive).isEqualTo(false);
+        verify(userRepository, times(2)).findByEmail(citizen.getEmail());
+    }
+
+    @Test
+    void theRequestUserIsReturnedAsACopy() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        User first = userCacheService.findByEmail(citizen.getEmail()).orElseThrow();
+        first.setIsActive(false);
+        User second = userCacheService.findByEmail(citizen.getEmail()).orElseThrow();
+        User byId = userCacheService.findById(7L).orElseThrow();
+
+        assertThat(second).isNotSameAs(first).isNotSameAs(byId);
+        assertThat(second.getIsActive()).isTrue();
+        assertThat(byId.getIsActive()).isTrue();
+        verify(userRepository, times(1)).findByEmail(citizen.getEmail());
+    }
+}
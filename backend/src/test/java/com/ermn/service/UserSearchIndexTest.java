@@ -0,0 +1,122 @@
+package com.ermn.service;
+
+import com.ermn.model.entity.User;
+import com.ermn.model.enums.Role;
+import com.ermn.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+
+    private UserRepository userRepository;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findBatchAfter(anyLong(), any())).thenReturn(List.of());
+        when(userRepository.findUpdatedBatchAfter(any(), anyLong(), any())).thenReturn(List.of());
+        index = new UserSearchIndex(userRepository, Duration.ofMinutes(1));
+        index.rebuild();
+    }
+
+    @Test
+    void everyWordMustPrefixMatchANameEmailOrPhoneTerm() {
+        index.index(user(1, "Asha Rao", "asha.rao@ermn.com", "+91 98450 12345", Role.CITIZEN, true));
+        index.index(user(2, "Ravi Kumar", "ravi@hospital.org", "9845098450", Role.HOSPITAL_ADMIN, true));
+        index.index(user(3, "Asha Kumar", "kumar.a@ermn.com", "8000000000", Role.CITIZEN, true));
+
+        assertThat(ids("asha")).containsExactly(1L, 3L);
+        assertThat(ids("ASHA kum")).containsExactly(3L);
+        assertThat(ids("hospital")).containsExactly(2L);
+        assertThat(ids("ravi@hosp")).containsExactly(2L);
+        // Numbers match with or without the country code and formatting
+        assertThat(ids("98450-123")).containsExactly(1L);
+        assertThat(ids("919845")).containsExactly(1L);
+        assertThat(ids("9845")).containsExactly(1L, 2L);
+        assertThat(ids("rao kumar")).isEmpty();
+    }
+
+    @Test
+    void roleAndActiveFiltersCombineWithPrefixes() {
+        index.index(user(1, "Asha Rao", "a1@ermn.com", "1111111111", Role.CITIZEN, true));
+        index.index(user(2, "Asha Iyer", "a2@ermn.com", "2222222222", Role.CITIZEN, false));
+        index.index(user(3, "Asha Nair", "a3@ermn.com", "3333333333", Role.AMBULANCE_DRIVER, true));
+
+        assertThat(index.search("asha", Role.CITIZEN, null, null, 10, true))
+                .isEqualTo(new UserSearchIndex.SearchResult(List.of(1L, 2L), null, 2L));
+        assertThat(index.search(null, null, false, null, 10, true).userIds()).containsExactly(2L);
+        assertThat(index.search("asha", Role.CITIZEN, true, null, 10, false).userIds()).containsExactly(1L);
+        assertThat(index.search(null, Role.SUPER_ADMIN, null, null, 10, true).total()).isZero();
+
+        // Re-indexing a user moves it between the bitmaps
+        index.index(user(2, "Asha Iyer", "a2@ermn.com", "2222222222", Role.AMBULANCE_DRIVER, true));
+        assertThat(index.search("asha", Role.AMBULANCE_DRIVER, true, null, 10, false).userIds())
+                .containsExactly(2L, 3L);
+        assertThat(index.search("asha", Role.CITIZEN, null, null, 10, false).userIds()).containsExactly(1L);
+    }
+
+    @Test
+    void pagesFollowRegistrationOrderWhenIdsCommitOutOfOrder() {
+        for (long id : new long[] {1, 2, 5, 6, 3, 4, 9, 7}) {
+            index.index(user(id, "User " + id, "user" + id + "@ermn.com", "99999999" + id, Role.CITIZEN, true));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        do {
+            UserSearchIndex.SearchResult page = index.search("user", null, null, cursor, 3, false);
+            assertThat(page.userIds()).hasSizeLessThanOrEqualTo(3);
+            seen.addAll(page.userIds());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(1L, 2L, 5L, 6L, 3L, 4L, 9L, 7L);
+        // A cursor that is not indexed resumes at the next larger id
+        assertThat(index.search("user", null, null, 8L, 10, false).userIds()).containsExactly(9L, 7L);
+    }
+
+    @Test
+    void refreshPicksUpUsersChangedThroughOtherInstances() {
+        User registeredElsewhere = user(2, "Meera Das", "meera@ermn.com", "7777777777", Role.CITIZEN, true);
+        User deactivatedElsewhere = user(1, "Asha Rao", "asha@ermn.com", "1111111111", Role.CITIZEN, false);
+        when(userRepository.findBatchAfter(eq(0L), any())).thenReturn(List.of(
+                user(1, "Asha Rao", "asha@ermn.com", "1111111111", Role.CITIZEN, true)));
+        index.rebuild();
+        when(userRepository.findUpdatedBatchAfter(any(), eq(0L), any()))
+                .thenReturn(List.of(deactivatedElsewhere, registeredElsewhere));
+
+        index.refresh();
+
+        assertThat(ids("meera")).containsExactly(2L);
+        assertThat(index.search("asha", null, true, null, 10, true).total()).isZero();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, null, null, null, 10, false).userIds();
+    }
+
+    private static User user(long id, String name, String email, String phone, Role role, boolean active) {
+        return User.builder()
+                .id(id)
+                .fullName(name)
+                .email(email)
+                .phone(phone)
+                .role(role)
+                .isActive(active)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -12,6 +12,8 @@ import {
 } from '@mui/material';
 import { Notifications as NotificationsIcon } from '@mui/icons-material';
 import api from '../services/api';
+import { useAuth } from '../context/AuthContext';
+import { subscribeToNotifications } from '../services/websocket';
 
 interface Notification {
   id: number;
@@ -26,6 +28,7 @@ const NotificationsBell = () => {
   const [anchorEl, setAnchorEl] = useState<null | HTMLElement>(null);
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [loading, setLoading] = useState(false);
+  const { user } = useAuth();
   const open = Boolean(anchorEl);
 
   const fetchNotifications = async () => {
@@ -37,6 +40,21 @@ const NotificationsBell = () => {
     }
   };
 
+  useEffect(() => {
+    if (!user) {
+      return;
+    }
+    return subscribeToNotifications(
+      user.role,
+      (notification) => {
+        setNotifications((prev) =>
+          prev.some((n) => n.id === notification.id) ? prev : [notification, ...prev]
+        );
+      },
+      fetchNotifications
+    );
+  }, [user?.id, user?.role]);
+
   useEffect(() => {
     if (open) {
       setLoading(true);
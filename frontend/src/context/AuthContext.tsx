@@ -1,5 +1,6 @@
 import React, { createContext, useContext, useState, useEffect, ReactNode } from 'react';
 import { authService, UserResponse } from '../services/auth';
+import { disconnectWebSocket } from '../services/websocket';
 
 interface AuthContextType {
   user: UserResponse | null;
@@ -43,6 +44,8 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     const response = await authService.login({ email, password });
     localStorage.setItem('accessToken', response.accessToken);
     localStorage.setItem('refreshToken', response.refreshToken);
+    // The socket is authenticated when it connects, so reconnect as the new user
+    disconnectWebSocket();
     setUser(response.user);
   };
 
@@ -50,12 +53,15 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
     const response = await authService.register(data);
     localStorage.setItem('accessToken', response.accessToken);
     localStorage.setItem('refreshToken', response.refreshToken);
+    // The socket is authenticated when it connects, so reconnect as the new user
+    disconnectWebSocket();
     setUser(response.user);
   };
 
   const logout = () => {
     localStorage.removeItem('accessToken');
     localStorage.removeItem('refreshToken');
+    disconnectWebSocket();
     setUser(null);
   };
 
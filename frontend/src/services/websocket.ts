@@ -20,9 +20,8 @@ export const connectWebSocket = (): Client => {
   const token = localStorage.getItem('accessToken');
   client = new Client({
     webSocketFactory: () => new SockJS('http://localhost:8080/ws/tracking') as any,
-    connectHeaders: {
-      Authorization: `Bearer ${token}`,
-    },
+    // Signed-in sessions receive their own notifications; without a token the session is anonymous
+    connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
     reconnectDelay: 5000,
     heartbeatIncoming: 4000,
     heartbeatOutgoing: 4000,
@@ -70,6 +69,52 @@ export const subscribeToTracking = (
   };
 };
 
+export interface NotificationMessage {
+  id: number;
+  title: string;
+  message: string;
+  type: string;
+  isRead: boolean;
+  createdAt: string;
+}
+
+// Notifications can be delivered more than once; callers should ignore ids they already have.
+// Role-wide notifications are created in bulk and arrive without an id, so onRoleMessage should
+// reload the list.
+export const subscribeToNotifications = (
+  role: string,
+  onMessage: (message: NotificationMessage) => void,
+  onRoleMessage: () => void
+): (() => void) => {
+  let subscriptions: any[] = [];
+
+  const subscribe = () => {
+    if (client && client.connected) {
+      subscriptions = [
+        client.subscribe('/user/queue/notifications', (message) => {
+          const data: NotificationMessage = JSON.parse(message.body);
+          onMessage(data);
+        }),
+        client.subscribe(`/topic/notifications/role/${role}`, () => onRoleMessage()),
+      ];
+    }
+  };
+
+  if (!client || !client.connected) {
+    const newClient = connectWebSocket();
+    newClient.onConnect = () => {
+      console.log('WebSocket connected via subscribeToNotifications');
+      subscribe();
+    };
+  } else {
+    subscribe();
+  }
+
+  return () => {
+    subscriptions.forEach((subscription) => subscription.unsubscribe());
+  };
+};
+
 export const sendLocationUpdate = (bookingId: number, latitude: number, longitude: number) => {
   if (!client || !client.connected) {
     return;
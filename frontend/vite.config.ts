@@ -24,6 +24,8 @@ export default defineConfig({
       '/api': {
         target: 'http://localhost:8080',
         changeOrigin: true,
+        // Forward the browser's address, which the backend rate limits anonymous calls by
+        xfwd: true,
       },
       '/ws': {
         target: 'ws://localhost:8080',